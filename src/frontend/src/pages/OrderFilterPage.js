@@ -99,7 +99,7 @@ const OrderFilterPage = () => {
                         <tbody>
                         {orders.map((order) => (
                             <tr key={order.id}>
-                                <td>{order.customer?.username || '-'}</td>
+                                <td>{order.customerName || '-'}</td>
                                 <td>{order.orderDate ? new Date(order.orderDate).toLocaleString() : '-'}</td>
                                 <td>{order.description}</td>
                             </tr>
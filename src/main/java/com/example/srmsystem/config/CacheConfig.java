@@ -1,68 +1,137 @@
 package com.example.srmsystem.config;
 
+import com.example.srmsystem.dto.CacheStatsDto;
 import com.example.srmsystem.dto.DisplayCustomerDto;
 import com.example.srmsystem.dto.DisplayOrderDto;
-import com.example.srmsystem.model.Customer;
 import com.example.srmsystem.model.Order;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 
 @Component
 public class CacheConfig {
-    private static final int MAX_CUSTOMERS_CACHE_SIZE = 100;
-    private static final int MAX_ORDERS_CACHE_SIZE = 100;
+    private static final String CUSTOMERS_CACHE_NAME = "customers";
+    private static final String ORDERS_CACHE_NAME = "ordersByCustomer";
 
-    private static final String ALL_CUSTOMERS_CACHE_KEY = "allCustomers";
-    private static final String ALL_ORDERS_CACHE_KEY = "allOrders";
+    private final LruCache<Long, DisplayCustomerDto> customerCache;
+    private final LruCache<Long, List<DisplayOrderDto>> ordersByCustomerCache;
 
-    private final LruCache<String, List<DisplayCustomerDto>> allCustomersCache =
-            new LruCache<>(MAX_CUSTOMERS_CACHE_SIZE);
-    private final LruCache<String, List<DisplayOrderDto>> allOrdersCache =
-            new LruCache<>(MAX_ORDERS_CACHE_SIZE);
+    public CacheConfig(@Value("${cache.customers.max-size:10000}") int maxCustomerCacheSize,
+                       @Value("${cache.orders.max-entries:1000}") int maxOrdersCacheEntries) {
+        this.customerCache = new LruCache<>(maxCustomerCacheSize);
+        this.ordersByCustomerCache = new LruCache<>(maxOrdersCacheEntries);
+    }
 
-    public List<DisplayCustomerDto> getAllCustomers() {
-        return allCustomersCache.get(ALL_CUSTOMERS_CACHE_KEY);
+    public DisplayCustomerDto getCustomer(Long id) {
+        return customerCache.get(id);
     }
 
-    public void putAllCustomers(List<Customer> customers) {
-        List<DisplayCustomerDto> displayCustomerDtos = customers.stream()
-                .map(this::toDisplayCustomerDto)
-                .toList();
-        allCustomersCache.put(ALL_CUSTOMERS_CACHE_KEY, displayCustomerDtos);
+    public void putCustomer(DisplayCustomerDto customer) {
+        if (customer == null || customer.getId() == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> customerCache.put(customer.getId(), customer));
     }
 
-    public void removeAllCustomers() {
-        allCustomersCache.remove(ALL_CUSTOMERS_CACHE_KEY);
+    public long customerGeneration(Long id) {
+        return customerCache.generation(id);
     }
 
-    public List<DisplayOrderDto> getAllOrders() {
-        return allOrdersCache.get(ALL_ORDERS_CACHE_KEY);
+    /**
+     * Caches a customer read outside of a write. Skipped when the customer was updated or removed after
+     * {@code generation} was taken, so a slow read never overwrites the after-commit upsert.
+     */
+    public void putCustomerIfUnchanged(DisplayCustomerDto customer, long generation) {
+        if (customer == null || customer.getId() == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> customerCache.putIfUnchanged(customer.getId(), customer, generation));
     }
 
-    public void putAllOrders(List<Order> orders) {
-        List<DisplayOrderDto> displayOrderDtos = orders.stream()
-                .map(this::toDisplayOrderDto)
-                .toList();
-        allOrdersCache.put(ALL_ORDERS_CACHE_KEY, displayOrderDtos);
+    public void putCustomers(List<DisplayCustomerDto> customers) {
+        TransactionHooks.afterCommit(() -> customers.forEach(customer -> customerCache.put(customer.getId(), customer)));
     }
 
+    public void removeCustomer(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            customerCache.remove(id);
+            ordersByCustomerCache.remove(id);
+        });
+    }
 
-    public void removeAllOrders() {
-        allOrdersCache.remove(ALL_ORDERS_CACHE_KEY);
+    public void removeCustomers(Collection<Long> ids) {
+        TransactionHooks.afterCommit(() -> ids.forEach(id -> {
+            customerCache.remove(id);
+            ordersByCustomerCache.remove(id);
+        }));
     }
 
-    private DisplayCustomerDto toDisplayCustomerDto(Customer customer) {
-        if (customer == null) {
-            return null;
+    public List<CacheStatsDto> getStats() {
+        return List.of(
+                toCacheStatsDto(CUSTOMERS_CACHE_NAME, customerCache),
+                toCacheStatsDto(ORDERS_CACHE_NAME, ordersByCustomerCache)
+        );
+    }
+
+    public List<DisplayOrderDto> getOrders(Long customerId) {
+        return ordersByCustomerCache.get(customerId);
+    }
+
+    public long ordersGeneration(Long customerId) {
+        return ordersByCustomerCache.generation(customerId);
+    }
+
+    /**
+     * Caches orders read outside of a write. Skipped when an order of the customer was upserted or removed after
+     * {@code generation} was taken: such writes only patch present entries, so the read would hide them.
+     */
+    public void putOrdersIfUnchanged(Long customerId, List<DisplayOrderDto> orders, long generation) {
+        if (customerId == null || orders == null) {
+            return;
         }
+        TransactionHooks.afterCommit(() -> ordersByCustomerCache.putIfUnchanged(customerId, orders, generation));
+    }
+
+    public void upsertOrder(Order order) {
+        TransactionHooks.afterCommit(() -> {
+            DisplayOrderDto orderDto = toDisplayOrderDto(order);
+            Long customerId = orderDto.getCustomerId();
+            customerCache.computeIfPresent(customerId,
+                    (id, customer) -> withOrders(customer, replaceOrder(customer.getOrders(), orderDto)));
+            ordersByCustomerCache.computeIfPresent(customerId, (id, orders) -> replaceOrder(orders, orderDto));
+        });
+    }
 
-        List<DisplayOrderDto> orders = customer.getOrders()
-                .stream()
-                .map(this::toDisplayOrderDto)
-                .collect(Collectors.toList());
+    public void removeOrder(Long customerId, Long orderId) {
+        TransactionHooks.afterCommit(() -> {
+            customerCache.computeIfPresent(customerId,
+                    (id, customer) -> withOrders(customer, removeOrder(customer.getOrders(), orderId)));
+            ordersByCustomerCache.computeIfPresent(customerId, (id, orders) -> removeOrder(orders, orderId));
+        });
+    }
 
+    private List<DisplayOrderDto> replaceOrder(List<DisplayOrderDto> orders, DisplayOrderDto orderDto) {
+        List<DisplayOrderDto> updated = new ArrayList<>(orders == null ? List.of() : orders);
+        for (int i = 0; i < updated.size(); i++) {
+            if (orderDto.getId().equals(updated.get(i).getId())) {
+                updated.set(i, orderDto);
+                return updated;
+            }
+        }
+        updated.add(orderDto);
+        return updated;
+    }
+
+    private List<DisplayOrderDto> removeOrder(List<DisplayOrderDto> orders, Long orderId) {
+        List<DisplayOrderDto> updated = new ArrayList<>(orders == null ? List.of() : orders);
+        updated.removeIf(order -> orderId.equals(order.getId()));
+        return updated;
+    }
+
+    private DisplayCustomerDto withOrders(DisplayCustomerDto customer, List<DisplayOrderDto> orders) {
         return new DisplayCustomerDto(
                 customer.getId(),
                 customer.getUsername(),
@@ -74,6 +143,14 @@ public class CacheConfig {
         );
     }
 
+    private CacheStatsDto toCacheStatsDto(String name, LruCache<?, ?> cache) {
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        long requests = hits + misses;
+        double hitRate = requests == 0 ? 0.0 : (double) hits / requests;
+        return new CacheStatsDto(name, cache.size(), cache.getMaxSize(), hits, misses, hitRate);
+    }
+
     private DisplayOrderDto toDisplayOrderDto(Order order) {
         if (order == null) {
             return null;
@@ -90,4 +167,4 @@ public class CacheConfig {
         );
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.example.srmsystem.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Count-Min sketch over strings. Estimates never undercount; with the given confidence they overcount
+ * by at most {@code epsilon} times the total number of additions. Memory is fixed at construction.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+    private final double epsilon;
+    private final LongAdder total = new LongAdder();
+
+    public CountMinSketch(double epsilon, double confidence) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("Epsilon must be between 0 and 1");
+        }
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1");
+        }
+        // Ширина округляется вверх до степени двойки, поэтому фактическая погрешность не хуже заданной
+        int minWidth = (int) Math.min(1 << 30, Math.ceil(Math.E / epsilon));
+        this.width = Integer.highestOneBit(minWidth - 1) << 1;
+        this.depth = Math.max(1, (int) Math.ceil(Math.log(1 / (1 - confidence))));
+        this.epsilon = Math.E / width;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Adds one occurrence and returns the updated estimate.
+     */
+    public long add(String value) {
+        long hash1 = StringHashing.hash(value);
+        long hash2 = StringHashing.secondHash(hash1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long count = counters.incrementAndGet(index(row, hash1, hash2));
+            estimate = Math.min(estimate, count);
+        }
+        total.increment();
+        return estimate;
+    }
+
+    public long estimate(String value) {
+        long hash1 = StringHashing.hash(value);
+        long hash2 = StringHashing.secondHash(hash1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash1, hash2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Upper bound of the overcount of any single estimate at the configured confidence.
+     */
+    public long getMaxError() {
+        return (long) Math.ceil(epsilon * total.sum());
+    }
+
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        total.reset();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getMemoryBytes() {
+        return (long) counters.length() * Long.BYTES;
+    }
+
+    private int index(int row, long hash1, long hash2) {
+        return row * width + (int) ((hash1 + row * hash2) & (width - 1));
+    }
+}
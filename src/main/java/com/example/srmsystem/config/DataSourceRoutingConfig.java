@@ -0,0 +1,75 @@
+package com.example.srmsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+
+@Configuration
+@Profile({"local", "ci"})
+public class DataSourceRoutingConfig {
+
+    // Реплика догнала primary — отставание 0, иначе время с последней применённой транзакции
+    private static final String POSTGRES_LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    @Bean
+    @ConditionalOnProperty("app.datasource.replica.url")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource replicaDataSource(PoolMetricsTracker poolMetricsTracker,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("crm-replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(poolMetricsTracker);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty("app.datasource.replica.url")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${app.datasource.replica.max-lag-seconds:5}") double maxLagSeconds) {
+        return new ReplicaLagMonitor(replicaDataSource, POSTGRES_LAG_QUERY, maxLagSeconds);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                        @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+                                                        ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        return new ReadWriteRoutingDataSource(primaryDataSource,
+                replicaDataSource.getIfAvailable(), replicaLagMonitor.getIfAvailable());
+    }
+
+    // static: BeanPostProcessor должен создаваться раньше остальных бинов конфигурации
+    @Bean
+    public static BeanPostProcessor replicaCacheModeInstaller(ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+        return ReplicaCacheModeJpaDialect.installer(routingDataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        // Иначе прокси берёт соединение при старте, чтобы узнать значения по умолчанию
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
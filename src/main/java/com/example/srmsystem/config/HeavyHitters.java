@@ -0,0 +1,88 @@
+package com.example.srmsystem.config;
+
+import com.example.srmsystem.dto.UrlVisitEstimateDto;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Top keys of a {@link CountMinSketch}: a fixed set of at most {@code capacity} keys with the highest estimates.
+ * Counts are read from the sketch, so they share its bounds. Offering a tracked key, or one whose estimate does not
+ * exceed the smallest tracked estimate, takes no lock; only a key entering the set does.
+ */
+public class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final Set<String> tracked;
+    private final int capacity;
+    // Наименьшая оценка среди отслеживаемых ключей на момент последнего вытеснения; растёт вместе со скетчем
+    private volatile long floor;
+
+    public HeavyHitters(CountMinSketch sketch, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.sketch = sketch;
+        this.capacity = capacity;
+        this.tracked = ConcurrentHashMap.newKeySet(capacity * 2);
+    }
+
+    /**
+     * Offers a key the sketch has just counted, with the estimate the sketch returned for it.
+     */
+    public void offer(String key, long estimate) {
+        if (estimate <= floor || tracked.contains(key)) {
+            return;
+        }
+        admit(key, estimate);
+    }
+
+    /**
+     * Tracked keys by estimated count. Each count overestimates the true one by at most the sketch error.
+     */
+    public List<UrlVisitEstimateDto> top(int limit) {
+        long error = sketch.getMaxError();
+        return tracked.stream()
+                .map(key -> new UrlVisitEstimateDto(key, sketch.estimate(key), error))
+                .sorted(Comparator.comparingLong(UrlVisitEstimateDto::getCount).reversed()
+                        .thenComparing(UrlVisitEstimateDto::getUrl))
+                .limit(limit)
+                .toList();
+    }
+
+    public synchronized void clear() {
+        tracked.clear();
+        floor = 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private synchronized void admit(String key, long estimate) {
+        if (tracked.contains(key)) {
+            return;
+        }
+        if (tracked.size() < capacity) {
+            tracked.add(key);
+            return;
+        }
+        // Оценки отслеживаемых ключей с прошлого вытеснения могли вырасти: минимум ищем заново
+        String minimumKey = null;
+        long minimum = Long.MAX_VALUE;
+        for (String candidate : tracked) {
+            long candidateEstimate = sketch.estimate(candidate);
+            if (candidateEstimate < minimum) {
+                minimum = candidateEstimate;
+                minimumKey = candidate;
+            }
+        }
+        if (estimate > minimum) {
+            tracked.remove(minimumKey);
+            tracked.add(key);
+        }
+        // Вытесненный минимум не больше оценок оставшихся ключей, поэтому годится как нижняя граница
+        floor = minimum;
+    }
+}
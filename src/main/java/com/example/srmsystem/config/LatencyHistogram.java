@@ -0,0 +1,174 @@
+package com.example.srmsystem.config;
+
+import com.example.srmsystem.dto.RouteLatencyDto;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram: every power of two is split into 32 linear
+ * sub-buckets, so a reported percentile is within about 3% of the recorded value. Memory is fixed by the highest
+ * trackable value; recording is a few atomic increments and never allocates.
+ *
+ * <p>Values are kept in a ring of time slices. {@link #rotate()} starts a new slice and drops the oldest one, so
+ * a snapshot covers the last {@code slices} complete slices plus the current one.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Классы статусов 1xx–5xx; 0 — всё, что вне диапазона
+    private static final int STATUS_CLASSES = 6;
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Slice[] ring;
+    private final int bucketCount;
+    private final long highestTrackableMicros;
+    private volatile int current;
+
+    public LatencyHistogram(int slices, long highestTrackableMicros) {
+        if (slices <= 0) {
+            throw new IllegalArgumentException("Number of slices must be positive");
+        }
+        if (highestTrackableMicros < SUB_BUCKETS) {
+            throw new IllegalArgumentException("Highest trackable value must be at least " + SUB_BUCKETS);
+        }
+        this.highestTrackableMicros = highestTrackableMicros;
+        this.bucketCount = bucketIndex(highestTrackableMicros) + 1;
+        // Лишний слот: его очищают заранее, пока в него никто не пишет
+        this.ring = new Slice[slices + 2];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Slice(bucketCount);
+        }
+    }
+
+    public void record(long micros, int status) {
+        long value = Math.max(0, micros);
+        Slice slice = ring[current];
+        slice.buckets.incrementAndGet(bucketIndex(Math.min(value, highestTrackableMicros)));
+        slice.sum.add(value);
+        slice.max.accumulate(value);
+        int statusClass = status / 100;
+        slice.statusClasses.incrementAndGet(statusClass > 0 && statusClass < STATUS_CLASSES ? statusClass : 0);
+    }
+
+    /**
+     * Starts a new slice. Must be called from one thread at a time (the scheduler).
+     */
+    public void rotate() {
+        int next = (current + 1) % ring.length;
+        // Писатели, успевшие прочитать старый индекс, продолжают писать в предыдущий слот, а не в этот
+        ring[(next + 1) % ring.length].clear();
+        current = next;
+    }
+
+    public RouteLatencyDto snapshot(String route) {
+        long[] counts = new long[bucketCount];
+        long[] statuses = new long[STATUS_CLASSES];
+        long total = 0;
+        long sum = 0;
+        long max = 0;
+        int newest = current;
+        // Все слоты, кроме заранее очищенного следующего
+        for (int age = 0; age < ring.length - 1; age++) {
+            Slice slice = ring[Math.floorMod(newest - age, ring.length)];
+            for (int i = 0; i < bucketCount; i++) {
+                long count = slice.buckets.get(i);
+                counts[i] += count;
+                total += count;
+            }
+            for (int i = 0; i < STATUS_CLASSES; i++) {
+                statuses[i] += slice.statusClasses.get(i);
+            }
+            sum += slice.sum.sum();
+            max = Math.max(max, slice.max.get());
+        }
+
+        double[] percentiles = new double[PERCENTILES.length];
+        for (int p = 0; p < PERCENTILES.length; p++) {
+            percentiles[p] = toMillis(Math.min(valueAtPercentile(counts, total, PERCENTILES[p]), max));
+        }
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        for (int i = 1; i < STATUS_CLASSES; i++) {
+            if (statuses[i] > 0) {
+                statusCounts.put(i + "xx", statuses[i]);
+            }
+        }
+        if (statuses[0] > 0) {
+            statusCounts.put("other", statuses[0]);
+        }
+        return new RouteLatencyDto(route, total,
+                total == 0 ? 0 : toMillis(sum) / total,
+                percentiles[0], percentiles[1], percentiles[2], percentiles[3],
+                toMillis(max), statusCounts);
+    }
+
+    public long getMemoryBytes() {
+        return (long) ring.length * (bucketCount + STATUS_CLASSES) * Long.BYTES;
+    }
+
+    /**
+     * Highest value that falls into the bucket holding the given percentile.
+     */
+    private static long valueAtPercentile(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueInBucket(i);
+            }
+        }
+        return highestValueInBucket(counts.length - 1);
+    }
+
+    // Значения до 32 лежат линейно; дальше индекс = сдвиг * 32 + старшие 6 бит значения
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long highestValueInBucket(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / (double) TimeUnit.MILLISECONDS.toMicros(1);
+    }
+
+    private static final class Slice {
+        private final AtomicLongArray buckets;
+        private final AtomicLongArray statusClasses = new AtomicLongArray(STATUS_CLASSES);
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Slice(int bucketCount) {
+            this.buckets = new AtomicLongArray(bucketCount);
+        }
+
+        private void clear() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+            for (int i = 0; i < STATUS_CLASSES; i++) {
+                statusClasses.set(i, 0);
+            }
+            sum.reset();
+            max.reset();
+        }
+    }
+}
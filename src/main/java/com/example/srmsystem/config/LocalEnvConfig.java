@@ -1,10 +1,10 @@
 package com.example.srmsystem.config;
 
-import javax.sql.DataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 
 @Configuration
@@ -13,11 +13,14 @@ public class LocalEnvConfig {
 
 
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setUrl("jdbc:postgresql://localhost:5432/CRM");
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(PoolMetricsTracker poolMetricsTracker) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("crm-local");
+        dataSource.setJdbcUrl("jdbc:postgresql://localhost:5432/CRM");
         dataSource.setUsername("kirirut");
         dataSource.setPassword("2811");
+        dataSource.setMetricsTrackerFactory(poolMetricsTracker);
         return dataSource;
     }
 }
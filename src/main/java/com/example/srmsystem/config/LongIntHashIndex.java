@@ -0,0 +1,122 @@
+package com.example.srmsystem.config;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to non-negative int values, stored in two primitive arrays. Linear probing
+ * with backward-shift deletion, so removals leave no tombstones behind. Not thread-safe.
+ */
+final class LongIntHashIndex {
+    static final int ABSENT = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // Заполнение не выше половины: цепочки линейного пробирования остаются короткими
+    private static final int MAX_LOAD_PERCENT = 50;
+    private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+    private long[] keys;
+    // ABSENT в values помечает пустой слот, поэтому ключом может быть любое long
+    private int[] values;
+    private int shift;
+    private int size;
+
+    LongIntHashIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int get(long key) {
+        int mask = values.length - 1;
+        for (int slot = slot(key); values[slot] != ABSENT; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return ABSENT;
+    }
+
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative");
+        }
+        int mask = values.length - 1;
+        int slot = slot(key);
+        for (; values[slot] != ABSENT; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size * 100L > (long) values.length * MAX_LOAD_PERCENT) {
+            resize(values.length * 2);
+        }
+    }
+
+    /**
+     * Removes the key and returns its value, or {@link #ABSENT} when the key was not present.
+     */
+    int remove(long key) {
+        int mask = values.length - 1;
+        int slot = slot(key);
+        while (values[slot] != ABSENT && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == ABSENT) {
+            return ABSENT;
+        }
+        int removed = values[slot];
+        // Сдвигаем назад следующие элементы цепочки, которые можно поставить ближе к их исходному слоту
+        int hole = slot;
+        for (int next = (hole + 1) & mask; values[next] != ABSENT; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        values[hole] = ABSENT;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getMemoryBytes() {
+        return (long) values.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private int slot(long key) {
+        // Фибоначчиево хеширование: старшие биты произведения хорошо перемешаны даже для подряд идущих id
+        return (int) ((key * GOLDEN_RATIO) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, ABSENT);
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == ABSENT) {
+                continue;
+            }
+            int slot = slot(oldKeys[i]);
+            while (values[slot] != ABSENT) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.example.srmsystem.config;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
 
 public class LruCache<K, V> {
+    private static final int GENERATION_STRIPES = 64;
+
     private final Map<K, V> cache;
+    // Счётчики записей по полосам ключей: заполнение кэша из чтения отбрасывается, если ключ успели изменить
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     public LruCache(int maxSize) {
+        this.maxSize = maxSize;
         this.cache = new LinkedHashMap<K, V>(maxSize, 0.75f, true) {
             @Override
             protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
@@ -15,18 +25,73 @@ public class LruCache<K, V> {
     }
 
     public synchronized V get(K key) {
-        return cache.get(key);
+        V value = cache.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
     }
 
     public synchronized void put(K key, V value) {
         cache.put(key, value);
+        generations[stripe(key)]++;
+    }
+
+    /**
+     * Returns the write generation of the key. Take it before reading the value from the database and pass it to
+     * {@link #putIfUnchanged} afterwards.
+     */
+    public synchronized long generation(K key) {
+        return generations[stripe(key)];
+    }
+
+    /**
+     * Caches a value read from the database unless the key was written after {@code generation} was taken. A write
+     * that committed during the read is newer than the value, so the value is dropped instead of overwriting or
+     * resurrecting the entry.
+     */
+    public synchronized boolean putIfUnchanged(K key, V value, long generation) {
+        if (generations[stripe(key)] != generation) {
+            return false;
+        }
+        cache.put(key, value);
+        return true;
+    }
+
+    public synchronized void computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        cache.computeIfPresent(key, remapping);
+        generations[stripe(key)]++;
     }
 
     public synchronized void remove(K key) {
         cache.remove(key);
+        generations[stripe(key)]++;
     }
 
     public synchronized Collection<V> getAll() {
         return new ArrayList<>(cache.values());
     }
-}
\ No newline at end of file
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private static int stripe(Object key) {
+        int hash = Objects.hashCode(key);
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.srmsystem.config;
+
+import com.example.srmsystem.dto.CustomerOrderCountDto;
+import com.example.srmsystem.dto.DailyOrderCountDto;
+import com.example.srmsystem.dto.DescriptionCountDto;
+import com.example.srmsystem.dto.OrderSnapshotStatsDto;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of the orders table: one primitive array per column, customers and descriptions
+ * dictionary-encoded. Deleted rows are tombstoned and compacted away once they make up a quarter of the store.
+ * Scans split the rows into fixed-size chunks that run in parallel and merge their partial results.
+ */
+public class OrderColumnStore {
+    private static final long DELETED = -1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+    // Приблизительная цена одной записи словаря описаний: узел HashMap, ссылка в таблице и в списке, заголовки String
+    private static final int DESCRIPTION_ENTRY_BYTES = 96;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] customerCodes = new int[INITIAL_CAPACITY];
+    private long[] orderEpochSeconds = new long[INITIAL_CAPACITY];
+    private int[] descriptionCodes = new int[INITIAL_CAPACITY];
+    private int size;
+    private int tombstones;
+    private final LongIntHashIndex rowById = new LongIntHashIndex();
+
+    private long[] customerIds = new long[INITIAL_CAPACITY];
+    private int customerCount;
+    private final LongIntHashIndex customerCodeById = new LongIntHashIndex();
+
+    private final List<String> descriptions = new ArrayList<>();
+    // Ключи-строки остаются в обычной HashMap: описаний мало по сравнению со строками
+    private final Map<String, Integer> descriptionCodeByValue = new HashMap<>();
+    private long descriptionChars;
+
+    private long minEpochDay = Long.MAX_VALUE;
+    private long maxEpochDay = Long.MIN_VALUE;
+
+    public void upsert(long id, long customerId, LocalDateTime orderDate, String description) {
+        long stamp = lock.writeLock();
+        try {
+            int row = rowById.get(id);
+            if (row == LongIntHashIndex.ABSENT) {
+                ensureCapacity(size + 1);
+                row = size++;
+                rowById.put(id, row);
+                ids[row] = id;
+            }
+            customerCodes[row] = customerCode(customerId);
+            orderEpochSeconds[row] = toEpochSecond(orderDate);
+            descriptionCodes[row] = descriptionCode(description == null ? "" : description);
+            if (orderDate != null) {
+                long epochDay = orderDate.toLocalDate().toEpochDay();
+                minEpochDay = Math.min(minEpochDay, epochDay);
+                maxEpochDay = Math.max(maxEpochDay, epochDay);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int row = rowById.remove(id);
+            if (row != LongIntHashIndex.ABSENT) {
+                ids[row] = DELETED;
+                tombstones++;
+                compactIfNeeded();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void removeCustomer(long customerId) {
+        long stamp = lock.writeLock();
+        try {
+            int code = customerCodeById.get(customerId);
+            if (code == LongIntHashIndex.ABSENT) {
+                return;
+            }
+            for (int row = 0; row < size; row++) {
+                if (ids[row] != DELETED && customerCodes[row] == code) {
+                    rowById.remove(ids[row]);
+                    ids[row] = DELETED;
+                    tombstones++;
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Number of orders with an order date in [from; to), optionally of a single customer.
+     */
+    public long count(LocalDateTime from, LocalDateTime to, Long customerId) {
+        long stamp = lock.readLock();
+        try {
+            int customerCode = customerId == null ? -1 : customerCodeById.get(customerId);
+            if (customerId != null && customerCode == LongIntHashIndex.ABSENT) {
+                return 0;
+            }
+            long lower = lowerBound(from, to);
+            long upper = upperBound(to);
+            long[] rowIds = ids;
+            long[] seconds = orderEpochSeconds;
+            int[] customers = customerCodes;
+            return chunks(size).mapToLong(chunk -> {
+                long count = 0;
+                for (int row = chunkStart(chunk); row < chunkEnd(chunk, size); row++) {
+                    long second = seconds[row];
+                    if (rowIds[row] != DELETED && second >= lower && second < upper
+                            && (customerCode < 0 || customers[row] == customerCode)) {
+                        count++;
+                    }
+                }
+                return count;
+            }).sum();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Orders per calendar day between from and to inclusive; days without orders are omitted.
+     */
+    public List<DailyOrderCountDto> countByDay(LocalDate from, LocalDate to) {
+        long stamp = lock.readLock();
+        try {
+            long firstDay = Math.max(minEpochDay, from == null ? Long.MIN_VALUE : from.toEpochDay());
+            long lastDay = Math.min(maxEpochDay, to == null ? Long.MAX_VALUE : to.toEpochDay());
+            if (firstDay > lastDay) {
+                return List.of();
+            }
+            int span = Math.toIntExact(lastDay - firstDay + 1);
+            long lower = firstDay * 86_400;
+            long upper = (lastDay + 1) * 86_400;
+            long[] rowIds = ids;
+            long[] seconds = orderEpochSeconds;
+            long[] counts = mergeCounts(span, chunk -> {
+                long[] partial = new long[span];
+                for (int row = chunkStart(chunk); row < chunkEnd(chunk, size); row++) {
+                    long second = seconds[row];
+                    if (rowIds[row] != DELETED && second >= lower && second < upper) {
+                        partial[(int) (Math.floorDiv(second, 86_400) - firstDay)]++;
+                    }
+                }
+                return partial;
+            });
+            List<DailyOrderCountDto> days = new ArrayList<>();
+            for (int day = 0; day < span; day++) {
+                if (counts[day] > 0) {
+                    days.add(new DailyOrderCountDto(LocalDate.ofEpochDay(firstDay + day), counts[day]));
+                }
+            }
+            return days;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Customers with the most orders dated in [from; to).
+     */
+    public List<CustomerOrderCountDto> topCustomers(int limit, LocalDateTime from, LocalDateTime to) {
+        long stamp = lock.readLock();
+        try {
+            long lower = lowerBound(from, to);
+            long upper = upperBound(to);
+            int customers = customerCount;
+            long[] rowIds = ids;
+            long[] seconds = orderEpochSeconds;
+            int[] codes = customerCodes;
+            long[] counts = mergeCounts(customers, chunk -> {
+                long[] partial = new long[customers];
+                for (int row = chunkStart(chunk); row < chunkEnd(chunk, size); row++) {
+                    long second = seconds[row];
+                    if (rowIds[row] != DELETED && second >= lower && second < upper) {
+                        partial[codes[row]]++;
+                    }
+                }
+                return partial;
+            });
+            return topCodes(counts, limit).stream()
+                    .map(code -> new CustomerOrderCountDto(customerIds[code], counts[code]))
+                    .toList();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Most frequent order descriptions.
+     */
+    public List<DescriptionCountDto> topDescriptions(int limit) {
+        long stamp = lock.readLock();
+        try {
+            int distinct = descriptions.size();
+            long[] rowIds = ids;
+            int[] codes = descriptionCodes;
+            long[] counts = mergeCounts(distinct, chunk -> {
+                long[] partial = new long[distinct];
+                for (int row = chunkStart(chunk); row < chunkEnd(chunk, size); row++) {
+                    if (rowIds[row] != DELETED) {
+                        partial[codes[row]]++;
+                    }
+                }
+                return partial;
+            });
+            return topCodes(counts, limit).stream()
+                    .map(code -> new DescriptionCountDto(descriptions.get(code), counts[code]))
+                    .toList();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public OrderSnapshotStatsDto getStats() {
+        long stamp = lock.readLock();
+        try {
+            long capacity = ids.length;
+            long columnBytes = capacity * (Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES);
+            long dictionaryBytes = (long) customerIds.length * Long.BYTES
+                    + (long) descriptions.size() * DESCRIPTION_ENTRY_BYTES + descriptionChars * Character.BYTES;
+            long indexBytes = rowById.getMemoryBytes() + customerCodeById.getMemoryBytes();
+            return new OrderSnapshotStatsDto(size - tombstones, tombstones, capacity,
+                    customerCount, descriptions.size(), columnBytes + dictionaryBytes + indexBytes);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long[] mergeCounts(int width, IntFunction<long[]> scanChunk) {
+        return chunks(size)
+                .mapToObj(scanChunk)
+                .reduce((left, right) -> {
+                    for (int i = 0; i < width; i++) {
+                        left[i] += right[i];
+                    }
+                    return left;
+                })
+                .orElseGet(() -> new long[width]);
+    }
+
+    private static List<Integer> topCodes(long[] counts, int limit) {
+        PriorityQueue<Integer> top = new PriorityQueue<>(
+                (a, b) -> counts[a] != counts[b] ? Long.compare(counts[a], counts[b]) : Integer.compare(b, a));
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] == 0) {
+                continue;
+            }
+            top.offer(code);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Integer> codes = new ArrayList<>(top);
+        codes.sort((a, b) -> counts[a] != counts[b] ? Long.compare(counts[b], counts[a]) : Integer.compare(a, b));
+        return codes;
+    }
+
+    private static IntStream chunks(int rows) {
+        int chunkCount = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream chunks = IntStream.range(0, chunkCount);
+        return chunkCount > 1 ? chunks.parallel() : chunks;
+    }
+
+    private static int chunkStart(int chunk) {
+        return chunk * CHUNK_SIZE;
+    }
+
+    private static int chunkEnd(int chunk, int rows) {
+        return Math.min(rows, (chunk + 1) * CHUNK_SIZE);
+    }
+
+    // Заказы без даты попадают только в выборки без границ по дате
+    private static long lowerBound(LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            return toEpochSecond(from);
+        }
+        return to == null ? NO_DATE : NO_DATE + 1;
+    }
+
+    private static long upperBound(LocalDateTime to) {
+        return to == null ? Long.MAX_VALUE : toEpochSecond(to);
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? NO_DATE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private int customerCode(long customerId) {
+        int code = customerCodeById.get(customerId);
+        if (code != LongIntHashIndex.ABSENT) {
+            return code;
+        }
+        if (customerCount == customerIds.length) {
+            customerIds = Arrays.copyOf(customerIds, customerIds.length * 2);
+        }
+        customerIds[customerCount] = customerId;
+        customerCodeById.put(customerId, customerCount);
+        return customerCount++;
+    }
+
+    private int descriptionCode(String description) {
+        Integer code = descriptionCodeByValue.get(description);
+        if (code != null) {
+            return code;
+        }
+        descriptions.add(description);
+        descriptionChars += description.length();
+        descriptionCodeByValue.put(description, descriptions.size() - 1);
+        return descriptions.size() - 1;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        customerCodes = Arrays.copyOf(customerCodes, capacity);
+        orderEpochSeconds = Arrays.copyOf(orderEpochSeconds, capacity);
+        descriptionCodes = Arrays.copyOf(descriptionCodes, capacity);
+    }
+
+    private void compactIfNeeded() {
+        if (tombstones < MIN_TOMBSTONES_TO_COMPACT || tombstones * 4 < size) {
+            return;
+        }
+        int live = 0;
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == DELETED) {
+                continue;
+            }
+            ids[live] = ids[row];
+            customerCodes[live] = customerCodes[row];
+            orderEpochSeconds[live] = orderEpochSeconds[row];
+            descriptionCodes[live] = descriptionCodes[row];
+            rowById.put(ids[live], live);
+            live++;
+        }
+        size = live;
+        tombstones = 0;
+    }
+}
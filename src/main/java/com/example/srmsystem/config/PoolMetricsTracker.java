@@ -0,0 +1,98 @@
+package com.example.srmsystem.config;
+
+import com.example.srmsystem.dto.PoolStatsDto;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects HikariCP pool state and connection acquisition/usage timings for every pool it is attached to.
+ */
+@Component
+public class PoolMetricsTracker implements MetricsTrackerFactory {
+
+    private final Map<String, PoolTracker> trackers = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolTracker tracker = new PoolTracker(poolName, poolStats);
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    public List<PoolStatsDto> getStats() {
+        return trackers.values().stream()
+                .map(PoolTracker::toPoolStatsDto)
+                .toList();
+    }
+
+    private static final class PoolTracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder acquisitionNanos = new LongAdder();
+        private final LongAccumulator maxAcquisitionNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder usages = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAccumulator maxUsageMillis = new LongAccumulator(Math::max, 0);
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder created = new LongAdder();
+
+        private PoolTracker(String poolName, PoolStats poolStats) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquisitions.increment();
+            acquisitionNanos.add(elapsedAcquiredNanos);
+            maxAcquisitionNanos.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usages.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+            maxUsageMillis.accumulate(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            created.increment();
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        private PoolStatsDto toPoolStatsDto() {
+            long acquired = acquisitions.sum();
+            long used = usages.sum();
+            return new PoolStatsDto(
+                    poolName,
+                    poolStats.getActiveConnections(),
+                    poolStats.getIdleConnections(),
+                    poolStats.getTotalConnections(),
+                    poolStats.getPendingThreads(),
+                    poolStats.getMinConnections(),
+                    poolStats.getMaxConnections(),
+                    acquired,
+                    acquired == 0 ? 0.0 : (double) acquisitionNanos.sum() / acquired / TimeUnit.MILLISECONDS.toNanos(1),
+                    (double) maxAcquisitionNanos.get() / TimeUnit.MILLISECONDS.toNanos(1),
+                    used == 0 ? 0.0 : (double) usageMillis.sum() / used,
+                    maxUsageMillis.get(),
+                    timeouts.sum(),
+                    created.sum()
+            );
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.srmsystem.config;
+
+import com.example.srmsystem.dto.ReplicaStatsDto;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections inside read-only transactions while the replica is reachable and within the
+ * allowed lag, primary connections otherwise. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager asks for a
+ * connection before the read-only flag is bound to the thread, the lazy proxy defers that to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder readOnlyOnPrimary = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+    }
+
+    /**
+     * Runs the action with every connection taken from the primary, even inside read-only transactions.
+     * For reads that must not miss recent commits, e.g. rebuilding in-memory state.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    public static void onPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Whether a read-only transaction started on this thread now could be served by the replica. Ignores the
+     * current lag: the replica may become usable again before the transaction takes its connection.
+     */
+    public boolean mayRouteToReplica() {
+        return replica != null && FORCE_PRIMARY.get() == null;
+    }
+
+    public ReplicaStatsDto getStats() {
+        boolean configured = replica != null;
+        return new ReplicaStatsDto(configured,
+                configured && lagMonitor.isReplicaUsable(),
+                configured ? lagMonitor.getLastLagSeconds() : null,
+                configured ? lagMonitor.getMaxLagSeconds() : null,
+                configured ? lagMonitor.getLastError() : null,
+                replicaConnections.sum(),
+                primaryConnections.sum(),
+                readOnlyOnPrimary.sum());
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (isReadOnlyRequest()) {
+            if (replicaUsable()) {
+                try {
+                    Connection connection = source.open(replica);
+                    replicaConnections.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    log.warn("Replica connection failed, falling back to primary: {}", e.getMessage());
+                    lagMonitor.markUnavailable(e);
+                }
+            }
+            readOnlyOnPrimary.increment();
+        }
+        primaryConnections.increment();
+        return source.open(primary);
+    }
+
+    private boolean isReadOnlyRequest() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && FORCE_PRIMARY.get() == null;
+    }
+
+    private boolean replicaUsable() {
+        return replica != null && lagMonitor.isReplicaUsable();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.srmsystem.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.sql.SQLException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Keeps reads served by the replica out of the second-level and query caches. A lagging replica can return
+ * rows that are already stale or missing on the primary; cached, they would be served until the next write to
+ * the table or the region TTL. Read-only transactions that may be routed to the replica run with
+ * {@link CacheMode#GET}: they still read the caches but never put into them.
+ *
+ * <p>The decision is made when the transaction begins, because Hibernate decides whether a query result goes
+ * into the query cache before the connection, and with it the routing, is obtained. Transactions started inside
+ * {@link ReadWriteRoutingDataSource#onPrimary} keep the normal cache mode. Query results additionally need
+ * {@link ReplicaSafeJCacheRegionFactory}: Hibernate puts them after a miss regardless of the cache mode.
+ */
+public class ReplicaCacheModeJpaDialect extends HibernateJpaDialect {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    public ReplicaCacheModeJpaDialect(ReadWriteRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    /**
+     * Installs the dialect on the JPA transaction manager. It has to happen after initialization: the manager
+     * takes the dialect of the entity manager factory in afterPropertiesSet.
+     */
+    public static BeanPostProcessor installer(ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JpaTransactionManager transactionManager) {
+                    transactionManager.setJpaDialect(new ReplicaCacheModeJpaDialect(routingDataSource.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || !routingDataSource.mayRouteToReplica()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        if (!previous.isPutEnabled()) {
+            return transactionData;
+        }
+        session.setCacheMode(CacheMode.GET);
+        return new ReplicaTransactionData(transactionData, session, previous);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData replicaData) {
+            // Сессия open-in-view переживает транзакцию: следующие транзакции запроса могут идти на primary
+            replicaData.session().setCacheMode(replicaData.previousCacheMode());
+            super.cleanupTransaction(replicaData.delegate());
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private record ReplicaTransactionData(Object delegate, Session session, CacheMode previousCacheMode) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.srmsystem.config;
+
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    // До первой проверки реплика считается недоступной — чтения идут на primary
+    private volatile boolean replicaUsable;
+    private volatile Double lastLagSeconds;
+    private volatile String lastError;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, double maxLagSeconds) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.jdbcTemplate.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        try {
+            Double lag = jdbcTemplate.queryForObject(lagQuery, Double.class);
+            lastLagSeconds = lag == null ? 0 : lag;
+            lastError = null;
+            update(lastLagSeconds <= maxLagSeconds,
+                    "replica lag " + lastLagSeconds + "s, allowed " + maxLagSeconds + "s");
+        } catch (DataAccessException e) {
+            lastError = e.getMessage();
+            update(false, "replica check failed: " + e.getMessage());
+        }
+    }
+
+    public void markUnavailable(Exception cause) {
+        lastError = cause.getMessage();
+        update(false, "replica connection failed: " + cause.getMessage());
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public Double getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    public double getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    private synchronized void update(boolean usable, String reason) {
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Routing read-only transactions to the replica ({})", reason);
+            } else {
+                log.warn("Routing read-only transactions to the primary ({})", reason);
+            }
+        }
+        replicaUsable = usable;
+    }
+}
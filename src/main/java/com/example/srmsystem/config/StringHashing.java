@@ -0,0 +1,39 @@
+package com.example.srmsystem.config;
+
+/**
+ * 64-bit string hashes for the probabilistic structures: FNV-1a over the UTF-16 chars, finished with the
+ * MurmurHash3 fmix64 step. Both hashes feed double hashing ({@code hash1 + i * hash2}).
+ */
+final class StringHashing {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StringHashing() {
+    }
+
+    static long hash(String value) {
+        // По символам, без getBytes: вызывается на каждый запрос и не должен выделять память
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Second, independent hash derived from the first one.
+     */
+    static long secondHash(long hash) {
+        return mix(hash ^ FNV_PRIME);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
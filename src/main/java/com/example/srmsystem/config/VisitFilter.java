@@ -1,6 +1,9 @@
 package com.example.srmsystem.config;
 
+import com.example.srmsystem.service.LatencyService;
 import com.example.srmsystem.service.VisitService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,21 +11,74 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 @Component
 public class VisitFilter extends OncePerRequestFilter {
+    public static final String UNMATCHED_ROUTE = "unmatched";
+
     private final VisitService visitService;
+    private final LatencyService latencyService;
 
-    public VisitFilter(VisitService visitService) {
+    public VisitFilter(VisitService visitService, LatencyService latencyService) {
         this.visitService = visitService;
+        this.latencyService = latencyService;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        String url = request.getRequestURI();
-        visitService.incrementVisit(url);
-        filterChain.doFilter(request, response);
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            // Шаблон маршрута (например, /api/customers/{id}) известен только после выбора обработчика
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern == null ? UNMATCHED_ROUTE : pattern.toString();
+            visitService.recordVisit(route, request.getRequestURI());
+            if (request.isAsyncStarted()) {
+                // Потоковые ответы (экспорт) заканчиваются позже, чем возвращается обработчик
+                request.getAsyncContext().addListener(new LatencyListener(route, started, response));
+            } else {
+                // Необработанное исключение превратится в 500 уже после фильтра
+                int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+                latencyService.record(route, status, System.nanoTime() - started);
+            }
+        }
+    }
+
+    private final class LatencyListener implements AsyncListener {
+        private final String route;
+        private final long started;
+        private final HttpServletResponse response;
+
+        private LatencyListener(String route, long started, HttpServletResponse response) {
+            this.route = route;
+            this.started = started;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            latencyService.record(route, response.getStatus(), System.nanoTime() - started);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Завершение всё равно придёт через onComplete
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Завершение всё равно придёт через onComplete
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Повторный startAsync не меняет начало запроса
+        }
     }
-}
\ No newline at end of file
+}
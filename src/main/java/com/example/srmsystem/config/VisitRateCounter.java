@@ -0,0 +1,96 @@
+package com.example.srmsystem.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window event rates from two lock-free ring buffers: per-second buckets for windows up to a minute and
+ * per-minute buckets for windows up to an hour. Each bucket is one long holding the period it belongs to (high
+ * 32 bits) and its count (low 32 bits), so recording is a single CAS and never allocates.
+ */
+public class VisitRateCounter {
+    private static final int SLOTS = 64;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Окно не может быть длиннее кольца: текущий (неполный) период тоже занимает слот
+    public static final int MAX_SECOND_WINDOW = 60;
+    public static final int MAX_MINUTE_WINDOW = 60;
+
+    private final AtomicLongArray seconds = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray minutes = new AtomicLongArray(SLOTS);
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    public VisitRateCounter() {
+        this(System::nanoTime);
+    }
+
+    public VisitRateCounter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    public void record() {
+        long second = currentSecond();
+        increment(seconds, second);
+        increment(minutes, second / 60);
+    }
+
+    /**
+     * Average events per second over the last {@code windowSeconds} complete seconds, or over the last
+     * {@code windowSeconds / 60} complete minutes for windows longer than a minute. Until the counter has existed
+     * for the whole window, the average is taken over the time it has.
+     */
+    public double ratePerSecond(int windowSeconds) {
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        long second = currentSecond();
+        if (windowSeconds <= MAX_SECOND_WINDOW) {
+            long covered = Math.min(windowSeconds, second);
+            return covered == 0 ? 0 : (double) sum(seconds, second, covered) / covered;
+        }
+        long minute = second / 60;
+        long coveredMinutes = Math.min(Math.min(windowSeconds / 60, MAX_MINUTE_WINDOW), minute);
+        if (coveredMinutes == 0) {
+            // Первая минута ещё не закончилась — берём то, что есть в секундных корзинах
+            return ratePerSecond(MAX_SECOND_WINDOW);
+        }
+        return (double) sum(minutes, minute, coveredMinutes) / (coveredMinutes * 60);
+    }
+
+    private long currentSecond() {
+        return (nanoClock.getAsLong() - origin) / NANOS_PER_SECOND;
+    }
+
+    private static void increment(AtomicLongArray ring, long period) {
+        int slot = (int) (period & SLOT_MASK);
+        // Метка 0 означает пустой слот
+        long stamp = period + 1;
+        while (true) {
+            long current = ring.get(slot);
+            // Слот уже переключился на более поздний период (отставшие часы потока) — считаем туда же
+            long next = (current >>> 32) >= stamp ? current + 1 : (stamp << 32) | 1;
+            if (ring.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sum of the {@code periods} complete periods before {@code current}; buckets left over from older laps are
+     * skipped by their stamp.
+     */
+    private static long sum(AtomicLongArray ring, long current, long periods) {
+        long total = 0;
+        for (long period = current - periods; period < current; period++) {
+            long value = ring.get((int) (period & SLOT_MASK));
+            if ((value >>> 32) == period + 1) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.srmsystem.controller;
 
 import com.example.srmsystem.dto.CreateCustomerDto;
+import com.example.srmsystem.dto.CustomerPageDto;
 import com.example.srmsystem.dto.DisplayCustomerDto;
 import com.example.srmsystem.exception.BadRequestException;
 import com.example.srmsystem.exception.EntityNotFoundException;
 import com.example.srmsystem.exception.NoContentException;
+import com.example.srmsystem.service.CustomerExportService;
 import com.example.srmsystem.service.CustomerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,10 +16,13 @@ import jakarta.transaction.Transactional;
 import java.util.List;
 import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @Validated
@@ -27,10 +32,16 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/customers")
 public class CustomerController {
 
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int MAX_PAGE_LIMIT = 500;
+
     private final CustomerService customerService;
+    private final CustomerExportService customerExportService;
 
-    public CustomerController(final CustomerService customerService) {
+    public CustomerController(final CustomerService customerService,
+                              final CustomerExportService customerExportService) {
         this.customerService = customerService;
+        this.customerExportService = customerExportService;
     }
 
     @Operation(summary = "Получить список всех клиентов")
@@ -38,7 +49,8 @@ public class CustomerController {
             @ApiResponse(responseCode = "200", description = "Список клиентов получен"),
             @ApiResponse(responseCode = "204", description = "Список клиентов пуст")
     })
-    @GetMapping
+    // Полный список — только без параметров пагинации: любой из них (after или limit) уводит на страницы
+    @GetMapping(params = {"!after", "!limit"})
     public ResponseEntity<List<DisplayCustomerDto>> getAllCustomers() {
         log.info("Запрос на получение всех клиентов");
         List<DisplayCustomerDto> customers = customerService.getAllCustomers();
@@ -50,6 +62,41 @@ public class CustomerController {
         return ResponseEntity.ok(customers);
     }
 
+    @Operation(summary = "Получить страницу клиентов (keyset-пагинация по ID)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница клиентов получена"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры пагинации")
+    })
+    @GetMapping
+    public ResponseEntity<CustomerPageDto> getCustomersPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) int limit) {
+        log.info("Request to get {} clients after ID {}", limit, after);
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        if (after != null && after < 0) {
+            throw new BadRequestException("Cursor must not be negative");
+        }
+        CustomerPageDto page = customerService.getCustomersPage(after, limit);
+        log.info("Found {} clients, next cursor: {}", page.getCustomers().size(), page.getNextCursor());
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Потоковая выгрузка всех клиентов с заказами в JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка клиентов начата")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        log.info("Request to export all clients");
+        StreamingResponseBody body = customerExportService::exportCustomers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"customers.json\"")
+                .body(body);
+    }
+
     @Operation(summary = "Получить клиента по ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Клиент найден"),
@@ -88,22 +135,14 @@ public class CustomerController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Клиенты успешно созданы"),
             @ApiResponse(responseCode = "400", description = "Некорректный запрос"),
+            @ApiResponse(responseCode = "409", description = "Часть имён пользователей уже занята (список в conflicts)"),
             @ApiResponse(responseCode = "500", description = "Ошибка сервера")
     })
     @PostMapping("/bulk")
     public ResponseEntity<List<DisplayCustomerDto>> addCustomersBulk(@RequestBody @Valid List<CreateCustomerDto> customerDtos) {
         log.info("Request to bulk add {} clients", customerDtos.size());
 
-        boolean anyExists = customerService.anyCustomerExistsByUsername(customerDtos);
-
-        if (anyExists) {
-            log.error("One or more customers already exist based on username");
-            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // 409 Conflict
-        }
-
-        List<DisplayCustomerDto> createdCustomers = customerDtos.stream()
-                .map(customerService::createCustomer)
-                .toList();
+        List<DisplayCustomerDto> createdCustomers = customerService.createCustomersBulk(customerDtos);
         log.info("{} clients successfully created", createdCustomers.size());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdCustomers);
     }
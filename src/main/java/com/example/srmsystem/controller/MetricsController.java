@@ -0,0 +1,118 @@
+package com.example.srmsystem.controller;
+
+import com.example.srmsystem.config.CacheConfig;
+import com.example.srmsystem.config.PoolMetricsTracker;
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
+import com.example.srmsystem.dto.CacheStatsDto;
+import com.example.srmsystem.dto.HibernateStatsDto;
+import com.example.srmsystem.dto.PoolStatsDto;
+import com.example.srmsystem.dto.ReplicaStatsDto;
+import com.example.srmsystem.dto.UsernameFilterStatsDto;
+import com.example.srmsystem.service.HibernateStatsService;
+import com.example.srmsystem.service.UsernameFilterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/metrics")
+@Tag(name = "Metrics", description = "Runtime metrics of in-process caches and infrastructure")
+public class MetricsController {
+    private final CacheConfig cacheConfig;
+    private final UsernameFilterService usernameFilterService;
+    private final PoolMetricsTracker poolMetricsTracker;
+    private final HibernateStatsService hibernateStatsService;
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+
+    public MetricsController(CacheConfig cacheConfig,
+                             UsernameFilterService usernameFilterService,
+                             PoolMetricsTracker poolMetricsTracker,
+                             HibernateStatsService hibernateStatsService,
+                             ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+        this.cacheConfig = cacheConfig;
+        this.usernameFilterService = usernameFilterService;
+        this.poolMetricsTracker = poolMetricsTracker;
+        this.hibernateStatsService = hibernateStatsService;
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Operation(summary = "Get cache statistics", description = "Returns size, hit and miss counters of application caches.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cache statistics retrieved")
+    })
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(cacheConfig.getStats());
+    }
+
+    @Operation(summary = "Get username filter statistics",
+            description = "Returns size, configured and estimated false-positive rate and check counters of the username Bloom filter.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Username filter statistics retrieved")
+    })
+    @GetMapping("/username-filter")
+    public ResponseEntity<UsernameFilterStatsDto> getUsernameFilterStats() {
+        return ResponseEntity.ok(usernameFilterService.getStats());
+    }
+
+    @Operation(summary = "Rebuild username filter", description = "Rebuilds the username Bloom filter from the customers table.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Username filter rebuilt")
+    })
+    @PostMapping("/username-filter/rebuild")
+    public ResponseEntity<UsernameFilterStatsDto> rebuildUsernameFilter() {
+        usernameFilterService.rebuild();
+        return ResponseEntity.ok(usernameFilterService.getStats());
+    }
+
+    @Operation(summary = "Get connection pool statistics",
+            description = "Returns active, idle and pending connections and acquisition/usage timings of every connection pool.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Connection pool statistics retrieved")
+    })
+    @GetMapping("/pool")
+    public ResponseEntity<List<PoolStatsDto>> getPoolStats() {
+        return ResponseEntity.ok(poolMetricsTracker.getStats());
+    }
+
+    @Operation(summary = "Get read replica routing statistics",
+            description = "Returns whether read-only transactions currently go to the replica, its last measured lag "
+                    + "and how many connections were routed to the replica and the primary.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Replica routing statistics retrieved")
+    })
+    @GetMapping("/replica")
+    public ResponseEntity<ReplicaStatsDto> getReplicaStats() {
+        ReadWriteRoutingDataSource routing = routingDataSource.getIfAvailable();
+        return ResponseEntity.ok(routing == null ? new ReplicaStatsDto() : routing.getStats());
+    }
+
+    @Operation(summary = "Get Hibernate statistics",
+            description = "Returns second-level and query cache hits, misses and puts, overall and per cache region.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hibernate statistics retrieved")
+    })
+    @GetMapping("/hibernate")
+    public ResponseEntity<HibernateStatsDto> getHibernateStats() {
+        return ResponseEntity.ok(hibernateStatsService.getStats());
+    }
+
+    @Operation(summary = "Reset Hibernate statistics", description = "Clears Hibernate statistics counters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Hibernate statistics cleared")
+    })
+    @DeleteMapping("/hibernate")
+    public ResponseEntity<Void> clearHibernateStats() {
+        hibernateStatsService.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.srmsystem.controller;
+
+import com.example.srmsystem.dto.BulkOrderResultDto;
+import com.example.srmsystem.dto.CreateOrderDto;
+import com.example.srmsystem.service.OrderBulkService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@Tag(name = "Order Bulk Controller", description = "Массовое создание заказов для разных клиентов")
+@RestController
+@RequestMapping("/api/orders")
+public class OrderBulkController {
+
+    private final OrderBulkService orderBulkService;
+
+    public OrderBulkController(OrderBulkService orderBulkService) {
+        this.orderBulkService = orderBulkService;
+    }
+
+    @Operation(summary = "Создать заказы для разных клиентов (bulk)",
+            description = "Клиент задаётся полем customerId каждого заказа; результат возвращается по каждому элементу")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты по каждому заказу"),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком большой список")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkOrderResultDto>> createOrdersBulk(@RequestBody List<CreateOrderDto> orderDtos) {
+        log.info("Received request to bulk create {} orders", orderDtos.size());
+        return ResponseEntity.ok(orderBulkService.createOrders(orderDtos));
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.srmsystem.controller;
 
+import com.example.srmsystem.dto.BulkOrderResultDto;
 import com.example.srmsystem.dto.CreateOrderDto;
 import com.example.srmsystem.dto.DisplayOrderDto;
 import com.example.srmsystem.exception.BadRequestException;
 import com.example.srmsystem.exception.EntityNotFoundException;
 import com.example.srmsystem.exception.NoContentException;
+import com.example.srmsystem.service.OrderBulkService;
 import com.example.srmsystem.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -27,9 +29,11 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderBulkService orderBulkService;
 
-    public OrderController(final OrderService orderService) {
+    public OrderController(final OrderService orderService, final OrderBulkService orderBulkService) {
         this.orderService = orderService;
+        this.orderBulkService = orderBulkService;
     }
 
     @Operation(summary = "Получить все заказы клиента")
@@ -87,6 +91,21 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
+    @Operation(summary = "Создать несколько заказов для клиента (bulk)",
+            description = "Все заказы проверяются заранее; результат возвращается по каждому элементу")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты по каждому заказу"),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком большой список"),
+            @ApiResponse(responseCode = "404", description = "Клиент не найден")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkOrderResultDto>> addOrdersToCustomerBulk(
+            @PathVariable Long customerId, @RequestBody List<CreateOrderDto> orderDtos) {
+        log.info("Received request to bulk create {} orders for customer ID {}", orderDtos.size(), customerId);
+        List<BulkOrderResultDto> results = orderBulkService.createOrdersForCustomer(customerId, orderDtos);
+        return ResponseEntity.ok(results);
+    }
+
     @Operation(summary = "Обновить заказ клиента")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Заказ успешно обновлён"),
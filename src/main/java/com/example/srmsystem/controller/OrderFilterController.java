@@ -1,17 +1,23 @@
 package com.example.srmsystem.controller;
 
+import com.example.srmsystem.dto.DisplayOrderDto;
+import com.example.srmsystem.dto.OrderSearchCriteria;
+import com.example.srmsystem.dto.OrderSearchResultDto;
+import com.example.srmsystem.exception.BadRequestException;
 import com.example.srmsystem.exception.EntityNotFoundException;
-import com.example.srmsystem.model.Order;
 import com.example.srmsystem.repository.OrderRepository;
+import com.example.srmsystem.service.OrderSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,26 +28,36 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/orders/filter")
 public class OrderFilterController {
 
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int MAX_PAGE_LIMIT = 500;
+
     private final OrderRepository orderRepository;
+    private final OrderSearchService orderSearchService;
 
-    public OrderFilterController(OrderRepository orderRepository) {
+    public OrderFilterController(OrderRepository orderRepository, OrderSearchService orderSearchService) {
         this.orderRepository = orderRepository;
+        this.orderSearchService = orderSearchService;
     }
 
     @Operation(summary = "Получить заказы по имени клиента")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Заказы найдены"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры пагинации"),
             @ApiResponse(responseCode = "404", description = "Заказы не найдены")
     })
     @GetMapping("/customer")
-    public List<Order> getOrdersByCustomerName(@RequestParam String name) {
+    public List<DisplayOrderDto> getOrdersByCustomerName(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) int limit) {
         log.info("Запрос на получение заказов по имени клиента: {}", name);
-        List<Order> orders = orderRepository.findByCustomerName(name);
-        if (orders.isEmpty()) {
+        Pageable pageable = toPageable(page, limit);
+        List<DisplayOrderDto> orders = orderRepository.findDtosByCustomerName(name, pageable);
+        if (orders.isEmpty() && page == 0) {
             log.warn("No orders found for customer with name '{}'", name);
             throw new EntityNotFoundException("Orders not found for customer with name: " + name);
         } else {
-            log.info("Found {} orders for customer with name '{}'", orders.size(), name);
+            log.info("Found {} orders for customer with name '{}' on page {}", orders.size(), name, page);
         }
         return orders;
     }
@@ -49,20 +65,81 @@ public class OrderFilterController {
     @Operation(summary = "Получить заказы по дате")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Заказы найдены"),
-            @ApiResponse(responseCode = "400", description = "Неверный формат даты"),
+            @ApiResponse(responseCode = "400", description = "Неверный формат даты или параметры пагинации"),
             @ApiResponse(responseCode = "404", description = "Заказы не найдены")
     })
     @GetMapping("/date")
-    public List<Order> getOrdersByDate(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    public List<DisplayOrderDto> getOrdersByDate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) int limit) {
         log.info("Request to get orders for date: {}", date);
-        List<Order> orders = orderRepository.findByOrderDate(date);
-        if (orders.isEmpty()) {
+        Pageable pageable = toPageable(page, limit);
+        List<DisplayOrderDto> orders = orderRepository.findDtosByOrderDateRange(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), pageable);
+        if (orders.isEmpty() && page == 0) {
             log.warn("No orders found for date '{}'", date);
             throw new EntityNotFoundException("Orders not found for date: " + date);
         } else {
-            log.info("Found {} orders for date '{}'", orders.size(), date);
+            log.info("Found {} orders for date '{}' on page {}", orders.size(), date, page);
+        }
+        return orders;
+    }
+
+    @Operation(summary = "Получить заказы за период",
+            description = "Возвращает заказы с датой в полуоткрытом интервале [from; to)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Заказы найдены"),
+            @ApiResponse(responseCode = "400", description = "Неверный формат даты, пустой интервал или параметры пагинации"),
+            @ApiResponse(responseCode = "404", description = "Заказы не найдены")
+    })
+    @GetMapping("/range")
+    public List<DisplayOrderDto> getOrdersByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) int limit) {
+        log.info("Request to get orders from {} to {}", from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        Pageable pageable = toPageable(page, limit);
+        List<DisplayOrderDto> orders = orderRepository.findDtosByOrderDateRange(from, to, pageable);
+        if (orders.isEmpty() && page == 0) {
+            log.warn("No orders found from '{}' to '{}'", from, to);
+            throw new EntityNotFoundException("Orders not found from " + from + " to " + to);
+        } else {
+            log.info("Found {} orders from '{}' to '{}' on page {}", orders.size(), from, to, page);
         }
         return orders;
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Поиск заказов по набору фильтров",
+            description = "Любая комбинация фильтров: клиент, период заказа, текст описания, окна создания и обновления. "
+                    + "Сортировка по дате заказа и ID, keyset-пагинация через курсор nextCursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница результатов получена"),
+            @ApiResponse(responseCode = "400", description = "Некорректные фильтры, курсор или лимит")
+    })
+    @GetMapping("/search")
+    public OrderSearchResultDto searchOrders(
+            OrderSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_LIMIT) int limit) {
+        log.info("Request to search orders by {}", criteria);
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        return orderSearchService.search(criteria, cursor, limit);
+    }
+
+    private Pageable toPageable(int page, int limit) {
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        return PageRequest.of(page, limit);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.srmsystem.controller;
+
+import com.example.srmsystem.dto.CustomerOrderCountDto;
+import com.example.srmsystem.dto.DailyOrderCountDto;
+import com.example.srmsystem.dto.DescriptionCountDto;
+import com.example.srmsystem.dto.OrderSnapshotStatsDto;
+import com.example.srmsystem.exception.BadRequestException;
+import com.example.srmsystem.service.OrderSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@Tag(name = "Order Snapshot Controller", description = "Быстрые агрегаты по колоночному снимку заказов в памяти")
+@RestController
+@RequestMapping("/api/orders/snapshot")
+public class OrderSnapshotController {
+
+    private static final int DEFAULT_TOP_LIMIT = 10;
+    private static final int MAX_TOP_LIMIT = 1000;
+
+    private final OrderSnapshotService orderSnapshotService;
+
+    public OrderSnapshotController(OrderSnapshotService orderSnapshotService) {
+        this.orderSnapshotService = orderSnapshotService;
+    }
+
+    @Operation(summary = "Количество заказов",
+            description = "Заказы с датой в полуоткрытом интервале [from; to), при необходимости одного клиента")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Количество получено"),
+            @ApiResponse(responseCode = "400", description = "Неверный формат даты или пустой интервал")
+    })
+    @GetMapping("/count")
+    public ResponseEntity<Long> count(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long customerId) {
+        validateRange(from, to);
+        return ResponseEntity.ok(orderSnapshotService.count(from, to, customerId));
+    }
+
+    @Operation(summary = "Количество заказов по дням", description = "Границы from и to включительно")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Агрегаты получены"),
+            @ApiResponse(responseCode = "400", description = "Неверный формат даты или интервал")
+    })
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyOrderCountDto>> countByDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        return ResponseEntity.ok(orderSnapshotService.countByDay(from, to));
+    }
+
+    @Operation(summary = "Клиенты с наибольшим количеством заказов",
+            description = "Учитываются заказы с датой в полуоткрытом интервале [from; to)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Агрегаты получены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный лимит или интервал")
+    })
+    @GetMapping("/top-customers")
+    public ResponseEntity<List<CustomerOrderCountDto>> topCustomers(
+            @RequestParam(defaultValue = "" + DEFAULT_TOP_LIMIT) int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        validateLimit(limit);
+        validateRange(from, to);
+        return ResponseEntity.ok(orderSnapshotService.topCustomers(limit, from, to));
+    }
+
+    @Operation(summary = "Самые частые описания заказов")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Агрегаты получены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный лимит")
+    })
+    @GetMapping("/top-descriptions")
+    public ResponseEntity<List<DescriptionCountDto>> topDescriptions(
+            @RequestParam(defaultValue = "" + DEFAULT_TOP_LIMIT) int limit) {
+        validateLimit(limit);
+        return ResponseEntity.ok(orderSnapshotService.topDescriptions(limit));
+    }
+
+    @Operation(summary = "Состояние снимка", description = "Количество строк, словари и занимаемая память")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Состояние получено")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<OrderSnapshotStatsDto> getStats() {
+        return ResponseEntity.ok(orderSnapshotService.getStats());
+    }
+
+    @Operation(summary = "Перезагрузить снимок из таблицы orders")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Снимок перезагружен")
+    })
+    @PostMapping("/reload")
+    public ResponseEntity<OrderSnapshotStatsDto> reload() {
+        log.info("Request to reload order snapshot");
+        return ResponseEntity.ok(orderSnapshotService.reload());
+    }
+
+    private void validateLimit(int limit) {
+        if (limit <= 0 || limit > MAX_TOP_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_TOP_LIMIT);
+        }
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.srmsystem.controller;
+
+import com.example.srmsystem.dto.CustomerOrderCountDto;
+import com.example.srmsystem.dto.DailyOrderCountDto;
+import com.example.srmsystem.dto.OrderStatsRebuildDto;
+import com.example.srmsystem.exception.BadRequestException;
+import com.example.srmsystem.service.OrderStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@Tag(name = "Order Stats Controller", description = "Агрегаты по заказам: количество по дням и по клиентам")
+@RestController
+@RequestMapping("/api/orders/stats")
+public class OrderStatsController {
+
+    private static final int DEFAULT_TOP_LIMIT = 10;
+    private static final int MAX_TOP_LIMIT = 1000;
+
+    private final OrderStatsService orderStatsService;
+
+    public OrderStatsController(OrderStatsService orderStatsService) {
+        this.orderStatsService = orderStatsService;
+    }
+
+    @Operation(summary = "Количество заказов по дням",
+            description = "Границы from и to включительно; без границ — за всё время")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Агрегаты получены"),
+            @ApiResponse(responseCode = "400", description = "Неверный формат даты или интервал")
+    })
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyOrderCountDto>> getDailyCounts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Request to get daily order counts from {} to {}", from, to);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        return ResponseEntity.ok(orderStatsService.getDailyCounts(from, to));
+    }
+
+    @Operation(summary = "Количество заказов клиента")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Агрегат получен")
+    })
+    @GetMapping("/customers/{customerId}")
+    public ResponseEntity<CustomerOrderCountDto> getCustomerCount(@PathVariable Long customerId) {
+        log.info("Request to get order count for customer with ID: {}", customerId);
+        return ResponseEntity.ok(orderStatsService.getCustomerCount(customerId));
+    }
+
+    @Operation(summary = "Клиенты с наибольшим количеством заказов")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Агрегаты получены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный лимит")
+    })
+    @GetMapping("/customers")
+    public ResponseEntity<List<CustomerOrderCountDto>> getTopCustomers(
+            @RequestParam(defaultValue = "" + DEFAULT_TOP_LIMIT) int limit) {
+        log.info("Request to get top {} customers by order count", limit);
+        if (limit <= 0 || limit > MAX_TOP_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_TOP_LIMIT);
+        }
+        return ResponseEntity.ok(orderStatsService.getTopCustomers(limit));
+    }
+
+    @Operation(summary = "Пересобрать агрегаты",
+            description = "Пересчитывает агрегаты по таблице orders и сообщает, расходились ли они с инкрементальными")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Агрегаты пересобраны")
+    })
+    @PostMapping("/rebuild")
+    public ResponseEntity<OrderStatsRebuildDto> rebuild() {
+        log.info("Request to rebuild order stats");
+        return ResponseEntity.ok(orderStatsService.rebuild());
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.srmsystem.controller;
 
+import com.example.srmsystem.dto.RouteLatencyDto;
+import com.example.srmsystem.dto.UrlVisitEstimateDto;
+import com.example.srmsystem.dto.VisitDto;
+import com.example.srmsystem.dto.VisitRateDto;
+import com.example.srmsystem.service.LatencyService;
 import com.example.srmsystem.service.VisitService;
+import com.example.srmsystem.service.VisitStatsPersistenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,6 +14,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,9 +23,15 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Visit", description = "API for tracking website visits")
 public class VisitController {
     private final VisitService visitService;
+    private final VisitStatsPersistenceService visitStatsPersistenceService;
+    private final LatencyService latencyService;
 
-    public VisitController(VisitService visitService) {
+    public VisitController(VisitService visitService,
+                           VisitStatsPersistenceService visitStatsPersistenceService,
+                           LatencyService latencyService) {
         this.visitService = visitService;
+        this.visitStatsPersistenceService = visitStatsPersistenceService;
+        this.latencyService = latencyService;
     }
 
     @Operation(summary = "Count visit", description = "Increments the visit count for the given URL.")
@@ -30,7 +43,8 @@ public class VisitController {
         return ResponseEntity.ok().build();
     }
 
-    @Operation(summary = "Get visit count for a specific URL", description = "Retrieves the visit count for the given URL.")
+    @Operation(summary = "Get visit count for a specific route",
+            description = "Retrieves the visit count for the given controller route template.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Visit count retrieved",
                     content = @Content(mediaType = "application/json", schema = @Schema(type = "integer")))
@@ -38,18 +52,93 @@ public class VisitController {
 
     @GetMapping("/result")
     public ResponseEntity<Long> getVisitCount(
-            @Parameter(description = "URL to get visit count for", example = "/some/path") @RequestParam String url
+            @Parameter(description = "Route template to get visit count for", example = "/api/customers/{id}")
+            @RequestParam String url
     ) {
-        return ResponseEntity.ok((long) visitService.getVisitCount(url));
+        return ResponseEntity.ok(visitService.getVisitCount(url));
     }
 
-    @Operation(summary = "Clear visit data", description = "Clears all stored visit data.")
+    @Operation(summary = "Get visit counts of all routes",
+            description = "Returns exact visit counts per controller route template, most visited first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Route visit counts retrieved")
+    })
+    @GetMapping("/routes")
+    public ResponseEntity<List<VisitDto>> getRouteCounts() {
+        return ResponseEntity.ok(visitService.getRouteCounts());
+    }
+
+    @Operation(summary = "Get cluster-wide visit counts of all routes",
+            description = "Returns visit counts per route summed over all nodes, including this node's visits "
+                    + "that have not been written to the database yet.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cluster visit counts retrieved")
+    })
+    @GetMapping("/cluster")
+    public ResponseEntity<List<VisitDto>> getClusterCounts() {
+        return ResponseEntity.ok(visitStatsPersistenceService.getClusterCounts());
+    }
+
+    @Operation(summary = "Get request rates per route",
+            description = "Returns average requests per second of each route over the last second, 10 seconds, "
+                    + "minute, 5 minutes, 15 minutes and hour.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Request rates retrieved")
+    })
+    @GetMapping("/rates")
+    public ResponseEntity<List<VisitRateDto>> getRouteRates(
+            @Parameter(description = "Route template to limit the result to", example = "/api/customers/{id}")
+            @RequestParam(required = false) String route
+    ) {
+        return ResponseEntity.ok(visitService.getRouteRates(route));
+    }
+
+    @Operation(summary = "Get latency percentiles per route",
+            description = "Returns mean, p50, p90, p99, p99.9 and max request latency in milliseconds and response "
+                    + "counts by status class of each route over the rolling latency window, slowest p99 first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Latency percentiles retrieved")
+    })
+    @GetMapping("/latency")
+    public ResponseEntity<List<RouteLatencyDto>> getLatencies(
+            @Parameter(description = "Route template to limit the result to", example = "/api/customers/{id}")
+            @RequestParam(required = false) String route
+    ) {
+        return ResponseEntity.ok(latencyService.getLatencies(route));
+    }
+
+    @Operation(summary = "Estimate visits of a raw URL",
+            description = "Returns the Count-Min estimate of visits of the exact request URL and its maximum overcount.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Visit estimate retrieved")
+    })
+    @GetMapping("/urls/estimate")
+    public ResponseEntity<UrlVisitEstimateDto> estimateUrlVisits(
+            @Parameter(description = "Request URL", example = "/api/customers/1") @RequestParam String url
+    ) {
+        return ResponseEntity.ok(visitService.estimateUrlVisits(url));
+    }
+
+    @Operation(summary = "Get most visited raw URLs",
+            description = "Returns the heavy hitters among exact request URLs with their estimated counts and errors.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Most visited URLs retrieved")
+    })
+    @GetMapping("/urls/top")
+    public ResponseEntity<List<UrlVisitEstimateDto>> getTopUrls(
+            @Parameter(description = "Number of URLs to return", example = "10")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(visitService.getTopUrls(Math.max(1, limit)));
+    }
+
+    @Operation(summary = "Clear visit data", description = "Clears visit data of this node, in memory and in the database.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Visit data cleared")
     })
     @DeleteMapping("/clear")
     public ResponseEntity<Void> clearVisitData() {
-        visitService.clearVisitData();
+        visitStatsPersistenceService.clear();
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.srmsystem.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResultDto {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+
+    private String status;
+
+    private Long orderId;
+
+    private Long customerId;
+
+    private List<String> errors;
+}
@@ -0,0 +1,16 @@
+package com.example.srmsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderCountDto {
+
+    private Long customerId;
+
+    private long count;
+}
@@ -0,0 +1,17 @@
+package com.example.srmsystem.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOrderCountDto {
+
+    private LocalDate date;
+
+    private long count;
+}
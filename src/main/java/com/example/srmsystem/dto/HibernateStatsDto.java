@@ -0,0 +1,33 @@
+package com.example.srmsystem.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HibernateStatsDto {
+
+    private long secondLevelCacheHits;
+
+    private long secondLevelCacheMisses;
+
+    private long secondLevelCachePuts;
+
+    private long queryCacheHits;
+
+    private long queryCacheMisses;
+
+    private long queryCachePuts;
+
+    private long queryExecutions;
+
+    private long entityLoads;
+
+    private long preparedStatements;
+
+    private List<CacheRegionStatsDto> regions;
+}
@@ -0,0 +1,17 @@
+package com.example.srmsystem.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchResultDto {
+
+    private List<DisplayOrderDto> orders;
+
+    private String nextCursor;
+}
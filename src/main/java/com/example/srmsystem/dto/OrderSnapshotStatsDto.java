@@ -0,0 +1,24 @@
+package com.example.srmsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSnapshotStatsDto {
+
+    private long liveRows;
+
+    private int tombstones;
+
+    private long capacity;
+
+    private int customers;
+
+    private int distinctDescriptions;
+
+    private long memoryBytes;
+}
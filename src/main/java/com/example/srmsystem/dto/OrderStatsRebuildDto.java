@@ -0,0 +1,26 @@
+package com.example.srmsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsRebuildDto {
+
+    private long orders;
+
+    private int days;
+
+    private int customers;
+
+    private int mismatchedDays;
+
+    private int mismatchedCustomers;
+
+    private boolean consistent;
+
+    private long durationMillis;
+}
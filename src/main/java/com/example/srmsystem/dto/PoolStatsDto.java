@@ -0,0 +1,40 @@
+package com.example.srmsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolStatsDto {
+
+    private String poolName;
+
+    private int activeConnections;
+
+    private int idleConnections;
+
+    private int totalConnections;
+
+    private int pendingThreads;
+
+    private int minIdle;
+
+    private int maxPoolSize;
+
+    private long connectionsAcquired;
+
+    private double averageAcquisitionMillis;
+
+    private double maxAcquisitionMillis;
+
+    private double averageUsageMillis;
+
+    private long maxUsageMillis;
+
+    private long connectionTimeouts;
+
+    private long connectionsCreated;
+}
@@ -0,0 +1,28 @@
+package com.example.srmsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaStatsDto {
+
+    private boolean configured;
+
+    private boolean replicaUsable;
+
+    private Double lagSeconds;
+
+    private Double maxLagSeconds;
+
+    private String lastError;
+
+    private long replicaConnections;
+
+    private long primaryConnections;
+
+    private long readOnlyOnPrimary;
+}
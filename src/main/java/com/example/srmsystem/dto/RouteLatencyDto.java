@@ -0,0 +1,33 @@
+package com.example.srmsystem.dto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteLatencyDto {
+
+    private String route;
+
+    private long count;
+
+    // Все времена — в миллисекундах
+    private double meanMs;
+
+    private double p50Ms;
+
+    private double p90Ms;
+
+    private double p99Ms;
+
+    private double p999Ms;
+
+    private double maxMs;
+
+    // Число ответов по классу статуса: "2xx", "4xx", ...
+    private Map<String, Long> statusCounts;
+}
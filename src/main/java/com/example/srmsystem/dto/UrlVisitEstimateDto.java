@@ -0,0 +1,19 @@
+package com.example.srmsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UrlVisitEstimateDto {
+
+    private String url;
+
+    private long count;
+
+    // Оценка может превышать реальное число визитов не более чем на эту величину
+    private long error;
+}
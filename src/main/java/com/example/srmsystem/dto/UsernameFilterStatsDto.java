@@ -0,0 +1,36 @@
+package com.example.srmsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsernameFilterStatsDto {
+
+    private boolean ready;
+
+    private long expectedInsertions;
+
+    private double configuredFalsePositiveRate;
+
+    private double estimatedFalsePositiveRate;
+
+    private long bitSize;
+
+    private int hashFunctions;
+
+    private long memoryBytes;
+
+    private long insertions;
+
+    private long staleEntries;
+
+    private long checks;
+
+    private long definiteNegatives;
+
+    private long falsePositives;
+}
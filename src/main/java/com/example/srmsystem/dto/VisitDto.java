@@ -1,9 +1,13 @@
 package com.example.srmsystem.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class VisitDto {
     private String url;
     private long visitCount;
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.example.srmsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitRateDto {
+
+    private String route;
+
+    private long totalVisits;
+
+    // Средняя частота запросов в секунду за окно
+    private double lastSecond;
+
+    private double last10Seconds;
+
+    private double lastMinute;
+
+    private double last5Minutes;
+
+    private double last15Minutes;
+
+    private double lastHour;
+}
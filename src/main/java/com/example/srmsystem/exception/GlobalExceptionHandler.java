@@ -15,6 +15,7 @@ public class GlobalExceptionHandler {
     private static final String ERROR_PREFIX = "Error: ";
     private static final String INTERNAL_ERROR_PREFIX = "Internal server error: ";
     private static final String ERROR_KEY = "error";
+    private static final String CONFLICTS_KEY = "conflicts";
 
     @ExceptionHandler(AppException.class)
     public ResponseEntity<String> handleAppException(AppException ex) {
@@ -47,6 +48,14 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(UsernameConflictException.class)
+    public ResponseEntity<Object> handleUsernameConflictException(UsernameConflictException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put(ERROR_KEY, ex.getMessage());
+        error.put(CONFLICTS_KEY, ex.getUsernames());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<List<String>> handleValidationExceptions(
             MethodArgumentNotValidException ex
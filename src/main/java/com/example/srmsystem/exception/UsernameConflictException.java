@@ -0,0 +1,14 @@
+package com.example.srmsystem.exception;
+
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class UsernameConflictException extends RuntimeException {
+    private final List<String> usernames;
+
+    public UsernameConflictException(List<String> usernames) {
+        super("Customers with these usernames already exist: " + usernames);
+        this.usernames = usernames;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.srmsystem.dto.CreateCustomerDto;
 import com.example.srmsystem.dto.DisplayCustomerDto;
 import com.example.srmsystem.dto.DisplayOrderDto;
 import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
@@ -33,8 +34,15 @@ public final class CustomerMapper {
         if (customer == null) {
             return null;
         }
+        return toDisplayCustomerDto(customer, customer.getOrders());
+    }
+
+    public DisplayCustomerDto toDisplayCustomerDto(final Customer customer, final List<Order> customerOrders) {
+        if (customer == null) {
+            return null;
+        }
 
-        List<DisplayOrderDto> orders = customer.getOrders()
+        List<DisplayOrderDto> orders = customerOrders
                 .stream()
                 .map(order -> new DisplayOrderDto(order.getId(),
                         order.getDescription(),
@@ -2,10 +2,43 @@ package com.example.srmsystem.repository;
 
 
 import com.example.srmsystem.model.Customer;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     boolean existsByUsername(String username);
+
+    // Проверка существования клиента перед операциями с заказами идёт через кэш запросов
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(Long id);
+
+    // Проверка существования набора клиентов одним запросом
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.username FROM Customer c")
+    List<String> findAllUsernames();
+
+    // Проверка конфликтов одним запросом на пачку имён
+    @Query("SELECT c.username FROM Customer c WHERE c.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Клиенты вместе с заказами одним запросом (без N+1 на ленивой коллекции)
+    @EntityGraph(attributePaths = "orders")
+    @Query("SELECT c FROM Customer c ORDER BY c.id")
+    List<Customer> findAllWithOrders();
+
+    // Keyset-пагинация: следующая страница после последнего отданного id
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -1,28 +1,58 @@
 package com.example.srmsystem.repository;
 
+import com.example.srmsystem.dto.DisplayOrderDto;
 import com.example.srmsystem.model.Order;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository {
 
     // JPQL — по имени клиента
     @Query("SELECT o FROM Order o WHERE o.customer.username = :name")
     List<Order> findByCustomerName(@Param("name") String name);
 
+    // JPQL — полуоткрытый диапазон [from; to) по order_date, идёт по индексу idx_orders_order_date
+    @Query("SELECT o FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :to ORDER BY o.orderDate, o.id")
+    List<Order> findByOrderDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
-    // Native SQL — по дате (отбрасываем время)
-    @SuppressWarnings("checkstyle:WhitespaceAround")
-    @Query(value ="SELECT * FROM orders WHERE DATE(order_date)=:date", nativeQuery = true)
-    List<Order> findByOrderDate(@Param("date") LocalDate date);
+    // По дате: от начала дня до начала следующего, без функции над колонкой
+    default List<Order> findByOrderDate(LocalDate date) {
+        return findByOrderDateRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
 
+    // Кэш запросов: id заказов из кэша, сами заказы из региона orders; сбрасывается при любой записи в orders
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Order> findByCustomerId(Long customerId);
 
+    @Query("SELECT o FROM Order o JOIN FETCH o.customer WHERE o.customer.id IN :customerIds ORDER BY o.id")
+    List<Order> findByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+
+    // Проекции в DTO прямо из запроса: без загрузки сущностей и отслеживания изменений
+    @Query("SELECT new com.example.srmsystem.dto.DisplayOrderDto("
+            + "o.id, o.description, o.orderDate, c.id, c.username, o.createdAt, o.updatedAt) "
+            + "FROM Order o JOIN o.customer c WHERE c.username = :name ORDER BY o.id")
+    List<DisplayOrderDto> findDtosByCustomerName(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT new com.example.srmsystem.dto.DisplayOrderDto("
+            + "o.id, o.description, o.orderDate, c.id, c.username, o.createdAt, o.updatedAt) "
+            + "FROM Order o JOIN o.customer c "
+            + "WHERE o.orderDate >= :from AND o.orderDate < :to ORDER BY o.orderDate, o.id")
+    List<DisplayOrderDto> findDtosByOrderDateRange(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Order findByCustomerIdAndId(Long customerId, Long orderId);
 }
@@ -0,0 +1,14 @@
+package com.example.srmsystem.repository;
+
+import com.example.srmsystem.dto.DisplayOrderDto;
+import com.example.srmsystem.dto.OrderSearchCriteria;
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+public interface OrderSearchRepository {
+
+    // Поиск по любой комбинации фильтров, сортировка (order_date NULLS LAST, id), keyset после (afterDate, afterId);
+    // afterDate == null при заданном afterId — последняя строка была без даты
+    List<DisplayOrderDto> search(OrderSearchCriteria criteria, LocalDateTime afterDate, Long afterId, int limit);
+}
@@ -0,0 +1,97 @@
+package com.example.srmsystem.repository;
+
+import com.example.srmsystem.dto.DisplayOrderDto;
+import com.example.srmsystem.dto.OrderSearchCriteria;
+import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DisplayOrderDto> search(OrderSearchCriteria criteria, LocalDateTime afterDate, Long afterId, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<DisplayOrderDto> query = cb.createQuery(DisplayOrderDto.class);
+        Root<Order> order = query.from(Order.class);
+        Join<Order, Customer> customer = order.join("customer");
+        Path<LocalDateTime> orderDate = order.get("orderDate");
+        Path<Long> id = order.get("id");
+
+        // В запрос попадают только заданные фильтры — один SQL на любую комбинацию
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getCustomerId() != null) {
+            predicates.add(cb.equal(customer.get("id"), criteria.getCustomerId()));
+        }
+        if (criteria.getCustomerName() != null && !criteria.getCustomerName().isBlank()) {
+            predicates.add(cb.equal(customer.get("username"), criteria.getCustomerName()));
+        }
+        addRange(cb, predicates, orderDate, criteria.getFrom(), criteria.getTo());
+        addRange(cb, predicates, order.get("createdAt"), criteria.getCreatedFrom(), criteria.getCreatedTo());
+        addRange(cb, predicates, order.get("updatedAt"), criteria.getUpdatedFrom(), criteria.getUpdatedTo());
+        if (criteria.getText() != null && !criteria.getText().isBlank()) {
+            String pattern = "%" + escapeLike(criteria.getText().trim().toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.like(cb.lower(order.get("description")), pattern, LIKE_ESCAPE));
+        }
+        // Keyset: строго после последней отданной строки в порядке (order_date NULLS LAST, id)
+        if (afterId != null && afterDate != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(orderDate, afterDate),
+                    cb.and(cb.equal(orderDate, afterDate), cb.greaterThan(id, afterId)),
+                    cb.isNull(orderDate)
+            ));
+        } else if (afterId != null) {
+            predicates.add(cb.and(cb.isNull(orderDate), cb.greaterThan(id, afterId)));
+        }
+
+        query.select(cb.construct(DisplayOrderDto.class,
+                        id,
+                        order.get("description"),
+                        orderDate,
+                        customer.get("id"),
+                        customer.get("username"),
+                        order.get("createdAt"),
+                        order.get("updatedAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                // NULLS LAST — порядок по умолчанию в PostgreSQL, индекс по order_date подходит без изменений
+                .orderBy(cb.asc(orderDate, false), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Полуоткрытый интервал [from; to)
+    private void addRange(CriteriaBuilder cb, List<Predicate> predicates, Path<LocalDateTime> path,
+                          LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(path, to));
+        }
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.dto.DisplayCustomerDto;
+import com.example.srmsystem.dto.DisplayOrderDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class CustomerExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerExportService.class);
+
+    private static final int FETCH_SIZE = 500;
+    private static final int FLUSH_EVERY_CUSTOMERS = 1000;
+
+    // Один проход по курсору: клиенты с заказами, упорядоченные по клиенту
+    private static final String EXPORT_QUERY = """
+            SELECT c.id, c.username, c.email, c.phone, c.address, c.company_name,
+                   o.id AS order_id, o.description, o.order_date, o.created_at, o.updated_at
+            FROM customers c
+            LEFT JOIN orders o ON o.customer_id = c.id
+            ORDER BY c.id, o.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CustomerExportService(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportCustomers(OutputStream outputStream) {
+        log.info("Starting streaming export of customers");
+        // PostgreSQL отдаёт строки порциями по fetch size только внутри транзакции (autocommit=false)
+        long exported = transactionTemplate.execute(status -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                CustomerRowWriter rowWriter = new CustomerRowWriter(generator);
+                jdbcTemplate.query(EXPORT_QUERY, rowWriter);
+                rowWriter.finish();
+                generator.writeEndArray();
+                return rowWriter.written;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Streaming export finished, {} customers written", exported);
+    }
+
+    private static final class CustomerRowWriter implements RowCallbackHandler {
+        private final JsonGenerator generator;
+        private DisplayCustomerDto current;
+        private long written;
+
+        private CustomerRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long customerId = rs.getLong("id");
+            if (current == null || current.getId() != customerId) {
+                finish();
+                current = new DisplayCustomerDto(
+                        customerId,
+                        rs.getString("username"),
+                        rs.getString("email"),
+                        rs.getString("phone"),
+                        rs.getString("address"),
+                        rs.getString("company_name"),
+                        new ArrayList<>()
+                );
+            }
+            long orderId = rs.getLong("order_id");
+            if (!rs.wasNull()) {
+                current.getOrders().add(new DisplayOrderDto(
+                        orderId,
+                        rs.getString("description"),
+                        rs.getObject("order_date", LocalDateTime.class),
+                        customerId,
+                        current.getUsername(),
+                        rs.getObject("created_at", LocalDateTime.class),
+                        rs.getObject("updated_at", LocalDateTime.class)
+                ));
+            }
+        }
+
+        private void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                generator.writeObject(current);
+                written++;
+                if (written == 1 || written % FLUSH_EVERY_CUSTOMERS == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+        }
+    }
+}
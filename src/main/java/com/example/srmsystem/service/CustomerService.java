@@ -1,19 +1,33 @@
 package com.example.srmsystem.service;
 
 import com.example.srmsystem.config.CacheConfig;
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
 import com.example.srmsystem.dto.CreateCustomerDto;
+import com.example.srmsystem.dto.CustomerPageDto;
 import com.example.srmsystem.dto.DisplayCustomerDto;
 import com.example.srmsystem.exception.EntityNotFoundException;
+import com.example.srmsystem.exception.UsernameConflictException;
 import com.example.srmsystem.exception.ValidationException;
 import com.example.srmsystem.mapper.CustomerMapper;
 import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
 import com.example.srmsystem.repository.CustomerRepository;
-import jakarta.transaction.Transactional;
+import com.example.srmsystem.repository.OrderRepository;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class CustomerService {
@@ -27,6 +41,12 @@ public class CustomerService {
     private static final String EMAIL_BLANK = "Email must not be blank";
     private static final String EMAIL_INVALID = "Email must be valid";
 
+    // Держим число bind-параметров одного IN далеко от лимита драйвера (32767)
+    private static final int USERNAME_CHECK_CHUNK_SIZE = 1000;
+
+    // PostgreSQL: "Key (username)=(bob) already exists."
+    private static final Pattern DUPLICATE_USERNAME = Pattern.compile("Key \\(username\\)=\\((.*)\\) already exists");
+
     private static final String EMAIL_REGEX = "^[\\w-.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
 
     private static final String LOG_FETCHING_CUSTOMER = "Fetching customer with ID: {}";
@@ -35,30 +55,49 @@ public class CustomerService {
     private static final String LOG_SUCCESSFULLY_FETCHED = "Customer with ID {} successfully fetched from database";
     private static final String LOG_CREATING_CUSTOMER = "Creating new customer with username: {}";
     private static final String LOG_CUSTOMER_CREATED = "Customer with ID {} created successfully";
+    private static final String LOG_CREATING_BULK = "Creating {} customers in bulk";
+    private static final String LOG_BULK_CREATED = "{} customers created in bulk";
+    private static final String LOG_USERNAME_CONFLICTS = "Usernames already taken: {}";
     private static final String LOG_UPDATING_CUSTOMER = "Updating customer with ID: {}";
     private static final String LOG_CUSTOMER_UPDATED = "Customer with ID {} updated successfully";
     private static final String LOG_DELETING_CUSTOMER = "Deleting customer with ID: {}";
     private static final String LOG_CUSTOMER_DELETED = "Customer with ID {} successfully deleted";
     private static final String LOG_FETCHING_ALL = "Fetching all customers";
     private static final String LOG_FETCHED_ALL = "Fetched {} customers from database";
+    private static final String LOG_FETCHING_PAGE = "Fetching {} customers after ID: {}";
 
     private static final String CUSTOMER_NOT_FOUND = "Customer not found with id: %d";
+    private static final String BULK_ITEM_ERROR = "Customer[%d]: %s";
+    private static final String USERNAME_DUPLICATED = "Username is duplicated in the request";
 
     private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
     private final CustomerMapper customerMapper;
     private final CacheConfig cacheConfig;
+    private final UsernameFilterService usernameFilterService;
+    private final OrderStatsService orderStatsService;
+    private final OrderSnapshotService orderSnapshotService;
 
     public CustomerService(CustomerRepository customerRepository,
+                           OrderRepository orderRepository,
                            CustomerMapper customerMapper,
-                           CacheConfig cacheConfig) {
+                           CacheConfig cacheConfig,
+                           UsernameFilterService usernameFilterService,
+                           OrderStatsService orderStatsService,
+                           OrderSnapshotService orderSnapshotService) {
         this.customerRepository = customerRepository;
+        this.orderRepository = orderRepository;
         this.customerMapper = customerMapper;
         this.cacheConfig = cacheConfig;
+        this.usernameFilterService = usernameFilterService;
+        this.orderStatsService = orderStatsService;
+        this.orderSnapshotService = orderSnapshotService;
     }
 
+    @Transactional(readOnly = true)
     public List<DisplayCustomerDto> getAllCustomers() {
         log.info(LOG_FETCHING_ALL);
-        List<Customer> customers = customerRepository.findAll();
+        List<Customer> customers = customerRepository.findAllWithOrders();
         List<DisplayCustomerDto> displayCustomerDtos = customers.stream()
                 .map(customerMapper::toDisplayCustomerDto)
                 .toList();
@@ -66,46 +105,124 @@ public class CustomerService {
         return displayCustomerDtos;
     }
 
+    @Transactional(readOnly = true)
+    public CustomerPageDto getCustomersPage(final Long after, final int limit) {
+        long cursor = after == null ? 0L : after;
+        log.info(LOG_FETCHING_PAGE, limit, cursor);
+
+        List<Customer> customers = customerRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(limit + 1));
+        boolean hasNext = customers.size() > limit;
+        List<Customer> page = hasNext ? customers.subList(0, limit) : customers;
+
+        Map<Long, List<Order>> ordersByCustomer = page.isEmpty()
+                ? Map.of()
+                : orderRepository.findByCustomerIdIn(page.stream().map(Customer::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(order -> order.getCustomer().getId()));
+
+        List<DisplayCustomerDto> displayCustomerDtos = page.stream()
+                .map(customer -> customerMapper.toDisplayCustomerDto(customer,
+                        ordersByCustomer.getOrDefault(customer.getId(), List.of())))
+                .toList();
+        Long nextCursor = hasNext ? page.get(page.size() - 1).getId() : null;
+        log.info(LOG_FETCHED_ALL, displayCustomerDtos.size());
+        return new CustomerPageDto(displayCustomerDtos, nextCursor);
+    }
+
     public DisplayCustomerDto getCustomerById(final Long id) {
         log.info(LOG_FETCHING_CUSTOMER, id);
-        List<DisplayCustomerDto> cachedCustomers = cacheConfig.getAllCustomers();
-        if (cachedCustomers != null) {
-            DisplayCustomerDto customerDto = cachedCustomers.stream()
-                    .filter(customer -> customer.getId().equals(id))
-                    .findFirst()
-                    .orElse(null);
-            if (customerDto != null) {
-                log.info(LOG_FOUND_IN_CACHE, id);
-                return customerDto;
-            }
+        DisplayCustomerDto cachedCustomer = cacheConfig.getCustomer(id);
+        if (cachedCustomer != null) {
+            log.info(LOG_FOUND_IN_CACHE, id);
+            return cachedCustomer;
         }
-        Customer customer = customerRepository.findById(id)
+        // Поколение берём до чтения: запись, закоммиченная во время чтения, не даст положить в кэш старую версию
+        long generation = cacheConfig.customerGeneration(id);
+        // Результат кладётся в кэш, поэтому читаем с primary: отстающая реплика закэшировала бы старые данные
+        Customer customer = ReadWriteRoutingDataSource.onPrimary(() -> customerRepository.findById(id))
                 .orElseThrow(() -> {
                     log.error(LOG_NOT_FOUND, id);
                     return new EntityNotFoundException(String.format(CUSTOMER_NOT_FOUND, id));
                 });
         DisplayCustomerDto displayCustomerDto = customerMapper.toDisplayCustomerDto(customer);
-        cacheConfig.putAllCustomers(customerRepository.findAll());
+        cacheConfig.putCustomerIfUnchanged(displayCustomerDto, generation);
         log.info(LOG_SUCCESSFULLY_FETCHED, id);
         return displayCustomerDto;
     }
 
+    @Transactional
     public DisplayCustomerDto createCustomer(final CreateCustomerDto dto) {
         List<String> errors = validateCustomerDto(dto);
         if (!errors.isEmpty()) {
             throw new ValidationException(errors);
         }
 
+        ensureUsernameAvailable(dto.getUsername());
+
         log.info(LOG_CREATING_CUSTOMER, dto.getUsername());
 
         Customer customer = customerMapper.fromCreateCustomerDto(dto);
-        Customer saved = customerRepository.save(customer);
-        cacheConfig.putAllCustomers(customerRepository.findAll());
+        Customer saved;
+        try {
+            saved = customerRepository.save(customer);
+            customerRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e, List.of(dto.getUsername()));
+        }
+        usernameFilterService.add(dto.getUsername());
+        DisplayCustomerDto displayCustomerDto = customerMapper.toDisplayCustomerDto(saved);
+        cacheConfig.putCustomer(displayCustomerDto);
 
         log.info(LOG_CUSTOMER_CREATED, saved.getId());
-        return customerMapper.toDisplayCustomerDto(saved);
+        return displayCustomerDto;
     }
 
+    @Transactional
+    public List<DisplayCustomerDto> createCustomersBulk(final List<CreateCustomerDto> dtos) {
+        List<String> errors = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            CreateCustomerDto dto = dtos.get(i);
+            for (String error : validateCustomerDto(dto)) {
+                errors.add(String.format(BULK_ITEM_ERROR, i, error));
+            }
+            if (dto.getUsername() != null && !usernames.add(dto.getUsername())) {
+                errors.add(String.format(BULK_ITEM_ERROR, i, USERNAME_DUPLICATED));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException(errors);
+        }
+
+        List<String> conflicts = findExistingUsernames(dtos);
+        if (!conflicts.isEmpty()) {
+            log.error(LOG_USERNAME_CONFLICTS, conflicts);
+            throw new UsernameConflictException(conflicts);
+        }
+
+        log.info(LOG_CREATING_BULK, dtos.size());
+
+        List<Customer> customers = dtos.stream()
+                .map(customerMapper::fromCreateCustomerDto)
+                .toList();
+        List<Customer> saved;
+        try {
+            saved = customerRepository.saveAll(customers);
+            customerRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e, dtos.stream().map(CreateCustomerDto::getUsername).toList());
+        }
+        List<DisplayCustomerDto> displayCustomerDtos = saved.stream()
+                .map(customerMapper::toDisplayCustomerDto)
+                .toList();
+        dtos.forEach(dto -> usernameFilterService.add(dto.getUsername()));
+        cacheConfig.putCustomers(displayCustomerDtos);
+
+        log.info(LOG_BULK_CREATED, displayCustomerDtos.size());
+        return displayCustomerDtos;
+    }
+
+    @Transactional
     public DisplayCustomerDto updateCustomer(final Long id, final CreateCustomerDto dto) {
         List<String> errors = validateCustomerDto(dto);
         if (!errors.isEmpty()) {
@@ -114,12 +231,19 @@ public class CustomerService {
 
         log.info(LOG_UPDATING_CUSTOMER, id);
 
-        Customer customer = customerRepository.findById(id)
+        // Результат кладётся в кэш, поэтому читаем с primary: отстающая реплика закэшировала бы старые данные
+        Customer customer = ReadWriteRoutingDataSource.onPrimary(() -> customerRepository.findById(id))
                 .orElseThrow(() -> {
                     log.error(LOG_NOT_FOUND, id);
                     return new EntityNotFoundException(String.format(CUSTOMER_NOT_FOUND, id));
                 });
 
+        String previousUsername = customer.getUsername();
+        boolean usernameChanged = !dto.getUsername().equals(previousUsername);
+        if (usernameChanged) {
+            ensureUsernameAvailable(dto.getUsername());
+        }
+
         customer.setUsername(dto.getUsername());
         customer.setPassword(dto.getPassword());
         customer.setEmail(dto.getEmail());
@@ -127,28 +251,88 @@ public class CustomerService {
         customer.setAddress(dto.getAddress());
         customer.setCompanyName(dto.getCompanyName());
 
-        Customer saved = customerRepository.save(customer);
-        cacheConfig.putAllCustomers(customerRepository.findAll());
+        Customer saved;
+        try {
+            saved = customerRepository.save(customer);
+            customerRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e, List.of(dto.getUsername()));
+        }
+        if (usernameChanged) {
+            usernameFilterService.add(dto.getUsername());
+            usernameFilterService.remove(previousUsername);
+        }
+        DisplayCustomerDto displayCustomerDto = customerMapper.toDisplayCustomerDto(saved);
+        cacheConfig.putCustomer(displayCustomerDto);
 
         log.info(LOG_CUSTOMER_UPDATED, saved.getId());
-        return customerMapper.toDisplayCustomerDto(saved);
+        return displayCustomerDto;
     }
 
     public boolean anyCustomerExistsByUsername(List<CreateCustomerDto> customerDtos) {
-        return customerDtos.stream()
-                .anyMatch(dto -> customerRepository.existsByUsername(dto.getUsername()));
+        return !findExistingUsernames(customerDtos).isEmpty();
+    }
+
+    public List<String> findExistingUsernames(List<CreateCustomerDto> customerDtos) {
+        List<String> candidates = customerDtos.stream()
+                .map(CreateCustomerDto::getUsername)
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(usernameFilterService::mightExist)
+                .toList();
+        List<String> existing = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += USERNAME_CHECK_CHUNK_SIZE) {
+            int to = Math.min(from + USERNAME_CHECK_CHUNK_SIZE, candidates.size());
+            List<String> chunk = candidates.subList(from, to);
+            // Проверка перед вставкой не должна пропустить только что созданных клиентов
+            existing.addAll(ReadWriteRoutingDataSource.onPrimary(() -> customerRepository.findExistingUsernames(chunk)));
+        }
+        usernameFilterService.recordFalsePositives(candidates.size() - (long) existing.size());
+        return existing;
+    }
+
+    private void ensureUsernameAvailable(String username) {
+        if (!usernameFilterService.mightExist(username)) {
+            return;
+        }
+        if (customerRepository.existsByUsername(username)) {
+            log.error(LOG_USERNAME_CONFLICTS, username);
+            throw new UsernameConflictException(List.of(username));
+        }
+        usernameFilterService.recordFalsePositives(1);
+    }
+
+    /**
+     * The pre-insert check can miss a username that another transaction or cluster node is inserting at the same
+     * time; the unique constraint then rejects the row and the caller gets the same 409 as for a detected conflict.
+     */
+    private RuntimeException translateIntegrityViolation(DataIntegrityViolationException e, List<String> usernames) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        String normalized = message.toLowerCase();
+        if (!normalized.contains("username")
+                || !(normalized.contains("unique") || normalized.contains("duplicate"))) {
+            return e;
+        }
+        Matcher matcher = DUPLICATE_USERNAME.matcher(message);
+        List<String> conflicts = matcher.find() ? List.of(matcher.group(1)) : usernames;
+        log.error(LOG_USERNAME_CONFLICTS, conflicts);
+        return new UsernameConflictException(conflicts);
     }
 
     @Transactional
     public void deleteCustomer(final Long id) {
         log.info(LOG_DELETING_CUSTOMER, id);
-        Customer customer = customerRepository.findById(id)
+        // Результат кладётся в кэш, поэтому читаем с primary: отстающая реплика закэшировала бы старые данные
+        Customer customer = ReadWriteRoutingDataSource.onPrimary(() -> customerRepository.findById(id))
                 .orElseThrow(() -> {
                     log.error(LOG_NOT_FOUND, id);
                     return new EntityNotFoundException(String.format(CUSTOMER_NOT_FOUND, id));
                 });
+        orderStatsService.customerDeleted(customer.getOrders());
         customerRepository.delete(customer);
-        cacheConfig.removeAllCustomers();
+        orderSnapshotService.customerDeleted(id);
+        usernameFilterService.remove(customer.getUsername());
+        cacheConfig.removeCustomer(id);
         log.info(LOG_CUSTOMER_DELETED, id);
     }
 
@@ -0,0 +1,54 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.dto.CacheRegionStatsDto;
+import com.example.srmsystem.dto.HibernateStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+@Service
+public class HibernateStatsService {
+
+    private final Statistics statistics;
+
+    public HibernateStatsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public HibernateStatsDto getStats() {
+        List<CacheRegionStatsDto> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(this::toCacheRegionStatsDto)
+                .toList();
+        return new HibernateStatsDto(
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getPrepareStatementCount(),
+                regions
+        );
+    }
+
+    public void clear() {
+        statistics.clear();
+    }
+
+    private CacheRegionStatsDto toCacheRegionStatsDto(String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        long requests = hits + misses;
+        double hitRate = requests == 0 ? 0.0 : (double) hits / requests;
+        return new CacheRegionStatsDto(region, hits, misses, regionStatistics.getPutCount(),
+                regionStatistics.getElementCountInMemory(), hitRate);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.config.LatencyHistogram;
+import com.example.srmsystem.dto.RouteLatencyDto;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LatencyService {
+
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final int slices;
+    private final long highestTrackableMicros;
+
+    // Окно visits.latency.window-seconds делится на slices срезов; каждый rotate() отбрасывает самый старый
+    public LatencyService(@Value("${visits.latency.slices:6}") int slices,
+                          @Value("${visits.latency.highest-trackable-ms:60000}") long highestTrackableMs) {
+        this.slices = slices;
+        this.highestTrackableMicros = TimeUnit.MILLISECONDS.toMicros(highestTrackableMs);
+    }
+
+    public void record(String route, int status, long durationNanos) {
+        // Как и счётчики визитов: get без блокировки, computeIfAbsent только для нового маршрута
+        LatencyHistogram histogram = histograms.get(route);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(route, key -> new LatencyHistogram(slices, highestTrackableMicros));
+        }
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(durationNanos), status);
+    }
+
+    /**
+     * Advances every histogram to a new time slice; a snapshot covers the configured window plus the slice in
+     * progress.
+     */
+    @Scheduled(fixedRateString = "#{${visits.latency.window-seconds:60} * 1000 / ${visits.latency.slices:6}}")
+    public void rotate() {
+        histograms.values().forEach(LatencyHistogram::rotate);
+    }
+
+    public List<RouteLatencyDto> getLatencies(String route) {
+        return histograms.entrySet().stream()
+                .filter(entry -> route == null || route.equals(entry.getKey()))
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingDouble(RouteLatencyDto::getP99Ms).reversed()
+                        .thenComparing(RouteLatencyDto::getRoute))
+                .toList();
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.config.CacheConfig;
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
+import com.example.srmsystem.dto.BulkOrderResultDto;
+import com.example.srmsystem.dto.CreateOrderDto;
+import com.example.srmsystem.exception.BadRequestException;
+import com.example.srmsystem.exception.EntityNotFoundException;
+import com.example.srmsystem.mapper.OrderMapper;
+import com.example.srmsystem.model.Order;
+import com.example.srmsystem.repository.CustomerRepository;
+import com.example.srmsystem.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class OrderBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBulkService.class);
+
+    public static final int MAX_BULK_ORDERS = 50_000;
+    private static final int INSERT_CHUNK_SIZE = 1000;
+    private static final int CUSTOMER_CHECK_CHUNK_SIZE = 1000;
+
+    private static final String ORDER_MISSING = "Order must not be null";
+    private static final String INSERT_FAILED = "Insert failed, the order was not created";
+    private static final String DESCRIPTION_EMPTY = "Description cannot be empty";
+    private static final String CUSTOMER_ID_MISSING = "Customer ID is required";
+    private static final String CUSTOMER_NOT_FOUND = "Customer with ID %d not found";
+
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final OrderMapper orderMapper;
+    private final CacheConfig cacheConfig;
+    private final OrderStatsService orderStatsService;
+    private final OrderSnapshotService orderSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderBulkService(OrderRepository orderRepository,
+                            CustomerRepository customerRepository,
+                            OrderMapper orderMapper,
+                            CacheConfig cacheConfig,
+                            OrderStatsService orderStatsService,
+                            OrderSnapshotService orderSnapshotService,
+                            PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.customerRepository = customerRepository;
+        this.orderMapper = orderMapper;
+        this.cacheConfig = cacheConfig;
+        this.orderStatsService = orderStatsService;
+        this.orderSnapshotService = orderSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<BulkOrderResultDto> createOrdersForCustomer(Long customerId, List<CreateOrderDto> orderDtos) {
+        if (!ReadWriteRoutingDataSource.onPrimary(() -> customerRepository.existsById(customerId))) {
+            log.error("Customer with ID: {} not found", customerId);
+            throw new EntityNotFoundException("Customer not found");
+        }
+        if (orderDtos != null) {
+            // Пустые элементы не трогаем: их отклонит проверка в createOrders
+            orderDtos.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(dto -> dto.setCustomerId(customerId));
+        }
+        return createOrders(orderDtos);
+    }
+
+    /**
+     * Validates every item and checks all referenced customers with set-based queries first, then inserts the
+     * accepted orders in chunks, each in its own transaction. The result has one entry per input item.
+     */
+    public List<BulkOrderResultDto> createOrders(List<CreateOrderDto> orderDtos) {
+        if (orderDtos == null || orderDtos.isEmpty()) {
+            throw new BadRequestException("Order list must not be empty");
+        }
+        if (orderDtos.size() > MAX_BULK_ORDERS) {
+            throw new BadRequestException("At most " + MAX_BULK_ORDERS + " orders can be created at once");
+        }
+        log.info("Bulk creating {} orders", orderDtos.size());
+
+        BulkOrderResultDto[] results = new BulkOrderResultDto[orderDtos.size()];
+        Set<Long> existingCustomers = findExistingCustomers(orderDtos);
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < orderDtos.size(); i++) {
+            CreateOrderDto dto = orderDtos.get(i);
+            List<String> errors = validate(dto, existingCustomers);
+            if (errors.isEmpty()) {
+                accepted.add(i);
+            } else {
+                results[i] = new BulkOrderResultDto(i, BulkOrderResultDto.REJECTED, null,
+                        dto == null ? null : dto.getCustomerId(), errors);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += INSERT_CHUNK_SIZE) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + INSERT_CHUNK_SIZE, accepted.size()));
+            try {
+                insertChunk(orderDtos, chunk, results);
+            } catch (RuntimeException e) {
+                // Подробности только в лог: текст исключения может раскрыть SQL и схему
+                log.error("Bulk order chunk of {} orders failed", chunk.size(), e);
+                for (Integer index : chunk) {
+                    results[index] = new BulkOrderResultDto(index, BulkOrderResultDto.FAILED, null,
+                            orderDtos.get(index).getCustomerId(), List.of(INSERT_FAILED));
+                }
+            }
+        }
+
+        log.info("Bulk order creation finished: {} accepted, {} rejected",
+                accepted.size(), orderDtos.size() - accepted.size());
+        return List.of(results);
+    }
+
+    private void insertChunk(List<CreateOrderDto> orderDtos, List<Integer> chunk, BulkOrderResultDto[] results) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Order> orders = new ArrayList<>(chunk.size());
+            Set<Long> customerIds = new HashSet<>();
+            for (Integer index : chunk) {
+                CreateOrderDto dto = orderDtos.get(index);
+                // Ссылка без SELECT: существование клиента уже проверено
+                orders.add(orderMapper.fromCreateOrderDto(dto, customerRepository.getReferenceById(dto.getCustomerId())));
+                customerIds.add(dto.getCustomerId());
+            }
+            List<Order> saved = orderRepository.saveAll(orders);
+            entityManager.flush();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Order order = saved.get(i);
+                results[chunk.get(i)] = new BulkOrderResultDto(chunk.get(i), BulkOrderResultDto.CREATED,
+                        order.getId(), order.getCustomer().getId(), List.of());
+                orderStatsService.orderCreated(order);
+                orderSnapshotService.orderSaved(order);
+            }
+            cacheConfig.removeCustomers(customerIds);
+            // Контекст открыт на весь запрос (OSIV), поэтому сбрасываем его после каждой порции
+            entityManager.clear();
+        });
+    }
+
+    private Set<Long> findExistingCustomers(List<CreateOrderDto> orderDtos) {
+        List<Long> customerIds = orderDtos.stream()
+                .filter(dto -> dto != null && dto.getCustomerId() != null)
+                .map(CreateOrderDto::getCustomerId)
+                .distinct()
+                .toList();
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < customerIds.size(); from += CUSTOMER_CHECK_CHUNK_SIZE) {
+            int to = Math.min(from + CUSTOMER_CHECK_CHUNK_SIZE, customerIds.size());
+            List<Long> chunk = customerIds.subList(from, to);
+            // Клиенты, созданные только что, могут ещё не дойти до реплики
+            existing.addAll(ReadWriteRoutingDataSource.onPrimary(() -> customerRepository.findExistingIds(chunk)));
+        }
+        return existing;
+    }
+
+    private List<String> validate(CreateOrderDto dto, Set<Long> existingCustomers) {
+        if (dto == null) {
+            return List.of(ORDER_MISSING);
+        }
+        List<String> errors = new ArrayList<>();
+        if (dto.getDescription() == null || dto.getDescription().trim().isEmpty()) {
+            errors.add(DESCRIPTION_EMPTY);
+        }
+        if (dto.getCustomerId() == null) {
+            errors.add(CUSTOMER_ID_MISSING);
+        } else if (!existingCustomers.contains(dto.getCustomerId())) {
+            errors.add(String.format(CUSTOMER_NOT_FOUND, dto.getCustomerId()));
+        }
+        return errors;
+    }
+}
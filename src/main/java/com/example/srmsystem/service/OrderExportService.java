@@ -0,0 +1,144 @@
+package com.example.srmsystem.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class OrderExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY_ROWS = 10_000;
+
+    private static final String HEADER = "id,customer_id,customer_name,description,order_date,created_at,updated_at";
+    private static final String EXPORT_QUERY = """
+            SELECT o.id, o.customer_id, c.username, o.description, o.order_date, o.created_at, o.updated_at
+            FROM orders o
+            JOIN customers c ON c.id = o.customer_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderExportService(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes orders with an order date in [from; to), optionally of one customer, as CSV. Rows go from a
+     * forward-only cursor straight to the stream, so heap use does not depend on the number of rows.
+     */
+    public void exportOrders(LocalDateTime from, LocalDateTime to, Long customerId, boolean gzip,
+                             OutputStream outputStream) {
+        StringBuilder sql = new StringBuilder(EXPORT_QUERY);
+        List<Object> args = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (customerId != null) {
+            conditions.add("o.customer_id = ?");
+            args.add(customerId);
+        }
+        if (from != null) {
+            conditions.add("o.order_date >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("o.order_date < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions)).append('\n');
+        }
+        sql.append("ORDER BY o.id");
+
+        log.info("Starting CSV export of orders from {} to {} for customer {}", from, to, customerId);
+        // PostgreSQL отдаёт строки порциями по fetch size только внутри транзакции (autocommit=false)
+        long exported = transactionTemplate.execute(status -> {
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(outputStream, WRITE_BUFFER_SIZE) : outputStream;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8),
+                        WRITE_BUFFER_SIZE);
+                writer.write(HEADER);
+                writer.write('\n');
+                long[] rows = {0};
+                jdbcTemplate.query(sql.toString(), rs -> {
+                    try {
+                        writer.write(Long.toString(rs.getLong(1)));
+                        writer.write(',');
+                        writer.write(Long.toString(rs.getLong(2)));
+                        writer.write(',');
+                        writeField(writer, rs.getString(3));
+                        writer.write(',');
+                        writeField(writer, rs.getString(4));
+                        writer.write(',');
+                        writeTimestamp(writer, rs.getTimestamp(5));
+                        writer.write(',');
+                        writeTimestamp(writer, rs.getTimestamp(6));
+                        writer.write(',');
+                        writeTimestamp(writer, rs.getTimestamp(7));
+                        writer.write('\n');
+                        if (++rows[0] % FLUSH_EVERY_ROWS == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, args.toArray());
+                writer.flush();
+                if (target instanceof GZIPOutputStream gzipStream) {
+                    gzipStream.finish();
+                }
+                return rows[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("CSV export finished, {} orders written", exported);
+    }
+
+    private static void writeTimestamp(Writer writer, Timestamp timestamp) throws IOException {
+        if (timestamp != null) {
+            writer.write(timestamp.toLocalDateTime().toString());
+        }
+    }
+
+    // RFC 4180: поле в кавычках, если содержит разделитель, кавычку или перевод строки
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.dto.DisplayOrderDto;
+import com.example.srmsystem.dto.OrderSearchCriteria;
+import com.example.srmsystem.dto.OrderSearchResultDto;
+import com.example.srmsystem.exception.BadRequestException;
+import com.example.srmsystem.repository.OrderRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OrderSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSearchService.class);
+
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final String INVALID_CURSOR = "Invalid search cursor";
+
+    private final OrderRepository orderRepository;
+
+    public OrderSearchService(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public OrderSearchResultDto search(OrderSearchCriteria criteria, String cursor, int limit) {
+        validateWindow(criteria.getFrom(), criteria.getTo(), "from", "to");
+        validateWindow(criteria.getCreatedFrom(), criteria.getCreatedTo(), "createdFrom", "createdTo");
+        validateWindow(criteria.getUpdatedFrom(), criteria.getUpdatedTo(), "updatedFrom", "updatedTo");
+
+        LocalDateTime afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterDate = position[0].isEmpty() ? null : LocalDateTime.parse(position[0]);
+            afterId = Long.valueOf(position[1]);
+        }
+
+        log.info("Searching orders by {} after cursor {} with limit {}", criteria, cursor, limit);
+        // Берём на одну строку больше, чтобы понять, есть ли следующая страница
+        List<DisplayOrderDto> orders = orderRepository.search(criteria, afterDate, afterId, limit + 1);
+        String nextCursor = null;
+        if (orders.size() > limit) {
+            orders = orders.subList(0, limit);
+            nextCursor = encodeCursor(orders.get(limit - 1));
+        }
+        log.info("Found {} orders, next cursor: {}", orders.size(), nextCursor);
+        return new OrderSearchResultDto(List.copyOf(orders), nextCursor);
+    }
+
+    private static String encodeCursor(DisplayOrderDto order) {
+        // Пустая дата — строка без order_date: такие строки идут в конце выдачи
+        String date = order.getOrderDate() == null ? "" : order.getOrderDate().toString();
+        String position = date + CURSOR_SEPARATOR + order.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\" + CURSOR_SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw new BadRequestException(INVALID_CURSOR);
+            }
+            if (!parts[0].isEmpty()) {
+                LocalDateTime.parse(parts[0]);
+            }
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(INVALID_CURSOR);
+        }
+    }
+
+    private void validateWindow(LocalDateTime from, LocalDateTime to, String fromName, String toName) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("'" + fromName + "' must be before '" + toName + "'");
+        }
+    }
+}
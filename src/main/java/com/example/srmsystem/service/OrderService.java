@@ -1,6 +1,7 @@
 package com.example.srmsystem.service;
 
 import com.example.srmsystem.config.CacheConfig;
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
 import com.example.srmsystem.dto.CreateOrderDto;
 import com.example.srmsystem.dto.DisplayOrderDto;
 import com.example.srmsystem.exception.EntityNotFoundException;
@@ -31,25 +32,39 @@ public class OrderService {
     private final CustomerRepository customerRepository;
     private final OrderMapper orderMapper;
     private final CacheConfig cacheConfig;
+    private final OrderStatsService orderStatsService;
+    private final OrderSnapshotService orderSnapshotService;
 
     public OrderService(OrderRepository orderRepository,
                         CustomerRepository customerRepository,
                         OrderMapper orderMapper,
-                        CacheConfig cacheConfig) {
+                        CacheConfig cacheConfig,
+                        OrderStatsService orderStatsService,
+                        OrderSnapshotService orderSnapshotService) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
         this.orderMapper = orderMapper;
         this.cacheConfig = cacheConfig;
+        this.orderStatsService = orderStatsService;
+        this.orderSnapshotService = orderSnapshotService;
     }
 
     public List<DisplayOrderDto> getAllOrdersByCustomerId(Long customerId) {
         log.info("Fetching orders for customer with ID: {}", customerId);
+        List<DisplayOrderDto> cachedOrders = cacheConfig.getOrders(customerId);
+        if (cachedOrders != null) {
+            log.info("Found {} cached orders for customer with ID: {}", cachedOrders.size(), customerId);
+            return cachedOrders;
+        }
         log.info("No cached orders found for customer with ID: {}. Fetching from database.", customerId);
-        List<Order> orders = orderRepository.findByCustomerId(customerId);
+        // Поколение берём до чтения: заказ, изменённый во время чтения, не даст положить в кэш старый список
+        long generation = cacheConfig.ordersGeneration(customerId);
+        // Результат кладётся в кэш, поэтому читаем с primary: отстающая реплика закэшировала бы старые данные
+        List<Order> orders = ReadWriteRoutingDataSource.onPrimary(() -> orderRepository.findByCustomerId(customerId));
         List<DisplayOrderDto> displayOrderDtos = orders.stream()
                 .map(orderMapper::toDisplayOrderDto)
                 .toList();
-        cacheConfig.putAllOrders(orders);
+        cacheConfig.putOrdersIfUnchanged(customerId, displayOrderDtos, generation);
         log.info("Fetched {} orders from database for customer with ID: {}", displayOrderDtos.size(), customerId);
         return displayOrderDtos;
     }
@@ -57,15 +72,25 @@ public class OrderService {
     public DisplayOrderDto getOrderById(Long customerId, Long orderId) {
         log.info("Fetching order with ID: {} for customer with ID: {}", orderId, customerId);
 
+        List<DisplayOrderDto> cachedOrders = cacheConfig.getOrders(customerId);
+        if (cachedOrders != null) {
+            for (DisplayOrderDto cachedOrder : cachedOrders) {
+                if (orderId.equals(cachedOrder.getId())) {
+                    log.info("Order with ID: {} for customer with ID: {} found in cache", orderId, customerId);
+                    return cachedOrder;
+                }
+            }
+        }
+
         log.info("Order with ID: {} not found in cache. Fetching from database for customer with ID: {}", orderId, customerId);
-        Order order = orderRepository.findByCustomerIdAndId(customerId, orderId);
+        // Запрос кэшируется в query cache, поэтому читаем с primary: отстающая реплика закэшировала бы старые данные
+        Order order = ReadWriteRoutingDataSource.onPrimary(() -> orderRepository.findByCustomerIdAndId(customerId, orderId));
         if (order == null) {
             log.error(ORDER_NOT_FOUND_LOG_MSG, orderId, customerId);
             return null;
         }
 
         DisplayOrderDto displayOrderDto = orderMapper.toDisplayOrderDto(order);
-        cacheConfig.putAllOrders(orderRepository.findByCustomerId(customerId));
         log.info("Order with ID: {} successfully fetched from database for customer with ID: {}", orderId, customerId);
         return displayOrderDto;
     }
@@ -94,7 +119,9 @@ public class OrderService {
         Order order = orderMapper.fromCreateOrderDto(createOrderDto, customer);
         Order savedOrder = orderRepository.save(order);
 
-        cacheConfig.putAllOrders(orderRepository.findByCustomerId(customerId));
+        cacheConfig.upsertOrder(savedOrder);
+        orderStatsService.orderCreated(savedOrder);
+        orderSnapshotService.orderSaved(savedOrder);
         log.info("Order with ID: {} created successfully for customer with ID: {}", savedOrder.getId(), customerId);
         return orderMapper.toDisplayOrderDto(savedOrder);
     }
@@ -116,18 +143,22 @@ public class OrderService {
             throw new ValidationException(errors);
         }
 
-        Order order = orderRepository.findByCustomerIdAndId(customerId, orderId);
+        // Запрос кэшируется в query cache, поэтому читаем с primary: отстающая реплика закэшировала бы старые данные
+        Order order = ReadWriteRoutingDataSource.onPrimary(() -> orderRepository.findByCustomerIdAndId(customerId, orderId));
         if (order == null) {
             log.error(ORDER_NOT_FOUND_LOG_MSG, orderId, customerId);
             throw new EntityNotFoundException("Order not found");
         }
 
+        LocalDateTime previousOrderDate = order.getOrderDate();
         order.setDescription(createOrderDto.getDescription());
         order.setOrderDate(createOrderDto.getOrderDate());
         order.setUpdatedAt(LocalDateTime.now());
 
         Order updatedOrder = orderRepository.save(order);
-        cacheConfig.putAllOrders(orderRepository.findByCustomerId(customerId));
+        cacheConfig.upsertOrder(updatedOrder);
+        orderStatsService.orderUpdated(previousOrderDate, updatedOrder);
+        orderSnapshotService.orderSaved(updatedOrder);
 
         log.info("Order with ID: {} successfully updated for customer with ID: {}", updatedOrder.getId(), customerId);
         return orderMapper.toDisplayOrderDto(updatedOrder);
@@ -142,18 +173,22 @@ public class OrderService {
             throw new EntityNotFoundException("Customer not found");
         }
 
-        Order order = orderRepository.findByCustomerIdAndId(customerId, orderId);
+        // Запрос кэшируется в query cache, поэтому читаем с primary: отстающая реплика закэшировала бы старые данные
+        Order order = ReadWriteRoutingDataSource.onPrimary(() -> orderRepository.findByCustomerIdAndId(customerId, orderId));
         if (order == null) {
             log.error(ORDER_NOT_FOUND_LOG_MSG, orderId, customerId);
             throw new EntityNotFoundException("Order not found");
         }
 
         orderRepository.delete(order);
-        cacheConfig.removeAllOrders();
+        cacheConfig.removeOrder(customerId, orderId);
+        orderStatsService.orderDeleted(order);
+        orderSnapshotService.orderDeleted(orderId);
 
         log.info("Order with ID: {} successfully deleted for customer with ID: {}", orderId, customerId);
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByCustomerName(String name) {
         log.info("Searching for orders by customer name: {}", name);
         List<Order> orders = orderRepository.findByCustomerName(name);
@@ -165,6 +200,7 @@ public class OrderService {
         return orders;
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByDate(LocalDate date) {
         log.info("Searching for orders by date: {}", date);
         List<Order> orders = orderRepository.findByOrderDate(date);
@@ -0,0 +1,139 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.config.OrderColumnStore;
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
+import com.example.srmsystem.config.TransactionHooks;
+import com.example.srmsystem.dto.CustomerOrderCountDto;
+import com.example.srmsystem.dto.DailyOrderCountDto;
+import com.example.srmsystem.dto.DescriptionCountDto;
+import com.example.srmsystem.dto.OrderSnapshotStatsDto;
+import com.example.srmsystem.model.Order;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class OrderSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSnapshotService.class);
+
+    private static final int FETCH_SIZE = 5000;
+    private static final String LOAD_QUERY = "SELECT id, customer_id, order_date, description FROM orders";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    private volatile OrderColumnStore store = new OrderColumnStore();
+    // Изменения, пришедшие во время перезагрузки, повторно применяются к новому снимку (операции идемпотентны)
+    private List<Consumer<OrderColumnStore>> pendingDuringReload;
+
+    public OrderSnapshotService(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    public void orderSaved(Order order) {
+        TransactionHooks.afterCommit(() -> {
+            long id = order.getId();
+            long customerId = order.getCustomer().getId();
+            LocalDateTime orderDate = order.getOrderDate();
+            String description = order.getDescription();
+            apply(snapshot -> snapshot.upsert(id, customerId, orderDate, description));
+        });
+    }
+
+    public void orderDeleted(Long orderId) {
+        TransactionHooks.afterCommit(() -> apply(snapshot -> snapshot.remove(orderId)));
+    }
+
+    public void customerDeleted(Long customerId) {
+        TransactionHooks.afterCommit(() -> apply(snapshot -> snapshot.removeCustomer(customerId)));
+    }
+
+    public long count(LocalDateTime from, LocalDateTime to, Long customerId) {
+        return store.count(from, to, customerId);
+    }
+
+    public List<DailyOrderCountDto> countByDay(LocalDate from, LocalDate to) {
+        return store.countByDay(from, to);
+    }
+
+    public List<CustomerOrderCountDto> topCustomers(int limit, LocalDateTime from, LocalDateTime to) {
+        return store.topCustomers(limit, from, to);
+    }
+
+    public List<DescriptionCountDto> topDescriptions(int limit) {
+        return store.topDescriptions(limit);
+    }
+
+    public OrderSnapshotStatsDto getStats() {
+        return store.getStats();
+    }
+
+    public OrderSnapshotStatsDto reload() {
+        if (!reloading.compareAndSet(false, true)) {
+            log.info("Order snapshot reload already in progress");
+            return store.getStats();
+        }
+        try {
+            synchronized (this) {
+                pendingDuringReload = new ArrayList<>();
+            }
+            long started = System.currentTimeMillis();
+            OrderColumnStore fresh = new OrderColumnStore();
+            // PostgreSQL отдаёт строки порциями по fetch size только внутри транзакции
+            // Снимок читается с primary: изменения, закоммиченные до начала загрузки, уже не будут применены повторно
+            ReadWriteRoutingDataSource.onPrimary(() -> transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(LOAD_QUERY, rs -> {
+                        fresh.upsert(rs.getLong("id"),
+                                rs.getLong("customer_id"),
+                                rs.getObject("order_date", LocalDateTime.class),
+                                rs.getString("description"));
+                    })));
+            synchronized (this) {
+                pendingDuringReload.forEach(change -> change.accept(fresh));
+                pendingDuringReload = null;
+                store = fresh;
+            }
+            OrderSnapshotStatsDto stats = fresh.getStats();
+            log.info("Order snapshot loaded: {} rows, {} bytes in {} ms",
+                    stats.getLiveRows(), stats.getMemoryBytes(), System.currentTimeMillis() - started);
+            return stats;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringReload = null;
+            }
+            log.error("Failed to load order snapshot, keeping the previous one", e);
+            return store.getStats();
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    private synchronized void apply(Consumer<OrderColumnStore> change) {
+        change.accept(store);
+        if (pendingDuringReload != null) {
+            pendingDuringReload.add(change);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
+import com.example.srmsystem.dto.CustomerOrderCountDto;
+import com.example.srmsystem.dto.DailyOrderCountDto;
+import com.example.srmsystem.dto.OrderStatsRebuildDto;
+import com.example.srmsystem.exception.AppException;
+import com.example.srmsystem.model.Order;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class OrderStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatsService.class);
+
+    private static final long COMMIT_WAIT_TIMEOUT_MILLIS = 10_000;
+    private static final int STATE_BATCH_SIZE = 1000;
+    // Полный пересчёт агрегатов: количество заказов по (клиент, день) за один проход
+    private static final String COUNT_QUERY = "SELECT customer_id, CAST(order_date AS DATE) AS order_day, "
+            + "COUNT(*) AS orders FROM orders GROUP BY customer_id, CAST(order_date AS DATE)";
+    private static final String STATE_QUERY = "SELECT id, customer_id, CAST(order_date AS DATE) AS order_day "
+            + "FROM orders WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+
+    // Дельты берут read-lock и не мешают друг другу; write-lock — только на подмену счётчиков после пересборки
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Транзакции между beforeCommit и применением своих дельт
+    private final Set<Object> committing = ConcurrentHashMap.newKeySet();
+
+    private volatile NavigableMap<LocalDate, LongAdder> ordersByDay = new ConcurrentSkipListMap<>();
+    private volatile Map<Long, LongAdder> ordersByCustomer = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    // Изменения, применённые во время пересборки; сверяются с её снимком по id заказа
+    private volatile Queue<OrderChange> changesDuringRebuild;
+
+    public OrderStatsService(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        // Пересчёт и сверка должны читать один снимок таблицы. JPA-транзакции не дают задать уровень изоляции
+        // при отложенном получении соединения, поэтому снимок читается через JDBC
+        this.snapshotTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public void orderCreated(Order order) {
+        // Дата заказа окончательно известна только после flush (@PrePersist/@PreUpdate), поэтому читаем её после коммита
+        applyAfterCommit(() -> List.of(new OrderChange(order.getId(), null, OrderState.of(order))));
+    }
+
+    public void orderUpdated(LocalDateTime previousOrderDate, Order order) {
+        OrderState previous = new OrderState(order.getCustomer().getId(), toDay(previousOrderDate));
+        applyAfterCommit(() -> List.of(new OrderChange(order.getId(), previous, OrderState.of(order))));
+    }
+
+    public void orderDeleted(Order order) {
+        OrderChange change = new OrderChange(order.getId(), OrderState.of(order), null);
+        applyAfterCommit(() -> List.of(change));
+    }
+
+    public void customerDeleted(Collection<Order> orders) {
+        List<OrderChange> changes = orders.stream()
+                .map(order -> new OrderChange(order.getId(), OrderState.of(order), null))
+                .toList();
+        applyAfterCommit(() -> changes);
+    }
+
+    public List<DailyOrderCountDto> getDailyCounts(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, LongAdder> days = ordersByDay;
+        NavigableMap<LocalDate, LongAdder> range;
+        if (from != null && to != null) {
+            range = days.subMap(from, true, to, true);
+        } else if (from != null) {
+            range = days.tailMap(from, true);
+        } else if (to != null) {
+            range = days.headMap(to, true);
+        } else {
+            range = days;
+        }
+        return range.entrySet().stream()
+                .map(entry -> new DailyOrderCountDto(entry.getKey(), entry.getValue().sum()))
+                .filter(day -> day.getCount() > 0)
+                .toList();
+    }
+
+    public CustomerOrderCountDto getCustomerCount(Long customerId) {
+        LongAdder count = ordersByCustomer.get(customerId);
+        return new CustomerOrderCountDto(customerId, count == null ? 0 : count.sum());
+    }
+
+    public List<CustomerOrderCountDto> getTopCustomers(int limit) {
+        return ordersByCustomer.entrySet().stream()
+                .map(entry -> new CustomerOrderCountDto(entry.getKey(), entry.getValue().sum()))
+                .filter(customer -> customer.getCount() > 0)
+                .sorted(Comparator.comparingLong(CustomerOrderCountDto::getCount).reversed()
+                        .thenComparing(CustomerOrderCountDto::getCustomerId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Recomputes both rollups from the orders table, reports how far the incremental counters had drifted
+     * and swaps the fresh counters in.
+     *
+     * <p>Order writes are not blocked while the table is aggregated. Changes applied in the meantime are recorded
+     * per order; once the aggregation is done, the rebuild waits for the transactions that were already committing,
+     * reads the state its snapshot holds for every changed order and replaces it with the latest known one. Only the
+     * swap itself excludes concurrent updates.
+     */
+    public synchronized OrderStatsRebuildDto rebuild() {
+        long started = System.currentTimeMillis();
+        Queue<OrderChange> changes = new ConcurrentLinkedQueue<>();
+        changesDuringRebuild = changes;
+        Snapshot snapshot;
+        try {
+            // С реплики пересборка могла бы потерять уже учтённые после коммита заказы
+            snapshot = ReadWriteRoutingDataSource.onPrimary(() ->
+                    snapshotTemplate.execute(status -> readSnapshot(changes)));
+        } catch (RuntimeException e) {
+            changesDuringRebuild = null;
+            throw e;
+        }
+
+        NavigableMap<LocalDate, LongAdder> freshDays = new ConcurrentSkipListMap<>();
+        Map<Long, LongAdder> freshCustomers = new ConcurrentHashMap<>();
+        long orders = 0;
+        for (DayCount row : snapshot.rows()) {
+            count(row.state(), row.orders(), freshDays, freshCustomers);
+            orders += row.orders();
+        }
+
+        NavigableMap<LocalDate, LongAdder> previousDays;
+        Map<Long, LongAdder> previousCustomers;
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = null;
+            Map<Long, OrderState> latest = new HashMap<>();
+            for (OrderChange change : changes) {
+                if (snapshot.states().containsKey(change.orderId())) {
+                    latest.put(change.orderId(), change.after());
+                } else {
+                    // Заказ не сверялся: изменение закоммичено уже после снимка
+                    change.applyTo(freshDays, freshCustomers);
+                }
+            }
+            latest.forEach((orderId, after) -> new OrderChange(orderId, snapshot.states().get(orderId), after)
+                    .applyTo(freshDays, freshCustomers));
+            previousDays = ordersByDay;
+            previousCustomers = ordersByCustomer;
+            ordersByDay = freshDays;
+            ordersByCustomer = freshCustomers;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // При первой загрузке сравнивать не с чем; старые счётчики после подмены больше не меняются
+        int mismatchedDays = loaded ? countMismatches(previousDays, freshDays) : 0;
+        int mismatchedCustomers = loaded ? countMismatches(previousCustomers, freshCustomers) : 0;
+        loaded = true;
+
+        long duration = System.currentTimeMillis() - started;
+        if (mismatchedDays > 0 || mismatchedCustomers > 0) {
+            log.warn("Order stats drifted: {} days and {} customers differed from the orders table",
+                    mismatchedDays, mismatchedCustomers);
+        }
+        log.info("Order stats rebuilt from {} orders in {} ms", orders, duration);
+        return new OrderStatsRebuildDto(orders, freshDays.size(), freshCustomers.size(),
+                mismatchedDays, mismatchedCustomers, mismatchedDays == 0 && mismatchedCustomers == 0, duration);
+    }
+
+    private Snapshot readSnapshot(Queue<OrderChange> changes) {
+        List<DayCount> rows = jdbcTemplate.query(COUNT_QUERY, (rs, rowNum) -> new DayCount(
+                new OrderState(rs.getLong("customer_id"), rs.getObject("order_day", LocalDate.class)),
+                rs.getLong("orders")));
+        // Транзакция, начавшая коммит до конца пересчёта, могла попасть в снимок: её изменения должны успеть записаться
+        awaitCommitting(new ArrayList<>(committing));
+        Set<Long> changedIds = new HashSet<>();
+        changes.forEach(change -> changedIds.add(change.orderId()));
+        // Отсутствие строки в снимке — тоже состояние: заказ ещё не создан или уже удалён
+        Map<Long, OrderState> states = new HashMap<>();
+        changedIds.forEach(orderId -> states.put(orderId, null));
+        List<Long> ids = new ArrayList<>(changedIds);
+        for (int from = 0; from < ids.size(); from += STATE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + STATE_BATCH_SIZE, ids.size()));
+            jdbcTemplate.query(STATE_QUERY, Map.of("ids", batch), rs -> {
+                states.put(rs.getLong("id"),
+                        new OrderState(rs.getLong("customer_id"), rs.getObject("order_day", LocalDate.class)));
+            });
+        }
+        return new Snapshot(rows, states);
+    }
+
+    private void awaitCommitting(List<Object> transactions) {
+        long deadline = System.currentTimeMillis() + COMMIT_WAIT_TIMEOUT_MILLIS;
+        transactions.removeIf(transaction -> !committing.contains(transaction));
+        while (!transactions.isEmpty()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AppException("Order stats rebuild timed out waiting for committing transactions");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            transactions.removeIf(transaction -> !committing.contains(transaction));
+        }
+    }
+
+    /**
+     * Applies the changes once the current transaction commits. The transaction is registered as committing from
+     * beforeCommit until its changes are applied, so a rebuild can wait for changes its snapshot may already contain.
+     */
+    private void applyAfterCommit(Supplier<List<OrderChange>> changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(changes.get());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing.add(this);
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(changes.get());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                // Откат или ошибка коммита: дельта не применяется, но ждать эту транзакцию больше нельзя
+                committing.remove(this);
+            }
+        });
+    }
+
+    private void apply(List<OrderChange> changes) {
+        lock.readLock().lock();
+        try {
+            changes.forEach(change -> change.applyTo(ordersByDay, ordersByCustomer));
+            Queue<OrderChange> pending = changesDuringRebuild;
+            if (pending != null) {
+                pending.addAll(changes);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void count(OrderState state, long delta,
+                              Map<LocalDate, LongAdder> days, Map<Long, LongAdder> customers) {
+        if (state == null) {
+            return;
+        }
+        adjust(customers, state.customerId(), delta);
+        if (state.day() != null) {
+            adjust(days, state.day(), delta);
+        }
+    }
+
+    private static <K> void adjust(Map<K, LongAdder> counts, K key, long delta) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    private static LocalDate toDay(LocalDateTime orderDate) {
+        return orderDate == null ? null : orderDate.toLocalDate();
+    }
+
+    private static <K> int countMismatches(Map<K, LongAdder> current, Map<K, LongAdder> fresh) {
+        Map<K, Long> currentCounts = new HashMap<>();
+        current.forEach((key, count) -> currentCounts.put(key, count.sum()));
+        Set<K> keys = new HashSet<>(currentCounts.keySet());
+        keys.addAll(fresh.keySet());
+        int mismatches = 0;
+        for (K key : keys) {
+            long expected = fresh.containsKey(key) ? fresh.get(key).sum() : 0;
+            if (currentCounts.getOrDefault(key, 0L) != expected) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    // null — заказа нет в таблице
+    private record OrderState(Long customerId, LocalDate day) {
+        static OrderState of(Order order) {
+            return new OrderState(order.getCustomer().getId(), toDay(order.getOrderDate()));
+        }
+    }
+
+    private record OrderChange(Long orderId, OrderState before, OrderState after) {
+        void applyTo(Map<LocalDate, LongAdder> days, Map<Long, LongAdder> customers) {
+            if (Objects.equals(before, after)) {
+                return;
+            }
+            count(before, -1, days, customers);
+            count(after, 1, days, customers);
+        }
+    }
+
+    private record DayCount(OrderState state, long orders) {
+    }
+
+    private record Snapshot(List<DayCount> rows, Map<Long, OrderState> states) {
+    }
+}
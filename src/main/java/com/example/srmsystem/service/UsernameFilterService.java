@@ -0,0 +1,177 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.config.BloomFilter;
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
+import com.example.srmsystem.config.TransactionHooks;
+import com.example.srmsystem.dto.UsernameFilterStatsDto;
+import com.example.srmsystem.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UsernameFilterService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilterService.class);
+
+    // Удалённые и переименованные имена остаются в фильтре; после 10% таких записей фильтр пересобирается
+    private static final double STALE_REBUILD_RATIO = 0.1;
+
+    private final CustomerRepository customerRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definiteNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder staleEntries = new LongAdder();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Пока пересборка стоит в очереди, новые удаления её не добавляют
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    // Свой поток: полное чтение имён не занимает common pool и потоки планировщика
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "username-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+    // Имена из ещё не завершённых транзакций: снимок пересборки их не видит, даже если коммит будет после чтения
+    private final Map<String, Integer> inFlight = new HashMap<>();
+    private List<String> addedDuringRebuild;
+
+    public UsernameFilterService(CustomerRepository customerRepository,
+                                 @Value("${username-filter.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.customerRepository = customerRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * false means the username is definitely not taken; true means it has to be checked in the database.
+     */
+    public boolean mightExist(String username) {
+        checks.increment();
+        if (!ready || filter.mightContain(username)) {
+            return true;
+        }
+        definiteNegatives.increment();
+        return false;
+    }
+
+    public void recordFalsePositives(long count) {
+        falsePositives.add(count);
+    }
+
+    /**
+     * Adds a username written by the current transaction. Until that transaction completes the name is also
+     * replayed into any rebuilt filter, since the rebuild's snapshot may be read before the insert commits.
+     */
+    public void add(String username) {
+        synchronized (this) {
+            filter.put(username);
+            inFlight.merge(username, 1, Integer::sum);
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(username);
+            }
+        }
+        TransactionHooks.afterCompletion(() -> complete(username));
+    }
+
+    private synchronized void complete(String username) {
+        inFlight.computeIfPresent(username, (name, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public void remove(String username) {
+        staleEntries.increment();
+        if (isStale() && rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                // Пересборка, запрошенная во время предыдущей, могла стать ненужной
+                if (isStale()) {
+                    rebuild();
+                }
+            });
+        }
+    }
+
+    private boolean isStale() {
+        BloomFilter current = filter;
+        return staleEntries.sum() > Math.max(current.getInsertions(), expectedInsertions) * STALE_REBUILD_RATIO;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            synchronized (this) {
+                // Транзакция, начатая до пересборки, может закоммитить имя уже после чтения снимка
+                addedDuringRebuild = new ArrayList<>(inFlight.keySet());
+            }
+            List<String> usernames = ReadWriteRoutingDataSource.onPrimary(customerRepository::findAllUsernames);
+            long capacity = Math.max(expectedInsertions, usernames.size() * 2L);
+            BloomFilter fresh = new BloomFilter(capacity, falsePositiveRate);
+            usernames.forEach(fresh::put);
+            synchronized (this) {
+                addedDuringRebuild.forEach(fresh::put);
+                addedDuringRebuild = null;
+                filter = fresh;
+                staleEntries.reset();
+                ready = true;
+            }
+            log.info("Username filter built from {} usernames: {} bits, {} hash functions",
+                    usernames.size(), fresh.getBitSize(), fresh.getHashFunctions());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                addedDuringRebuild = null;
+            }
+            log.error("Failed to build username filter, falling back to database checks", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public UsernameFilterStatsDto getStats() {
+        BloomFilter current = filter;
+        return new UsernameFilterStatsDto(
+                ready,
+                expectedInsertions,
+                falsePositiveRate,
+                current.getEstimatedFalsePositiveRate(),
+                current.getBitSize(),
+                current.getHashFunctions(),
+                current.getMemoryBytes(),
+                current.getInsertions(),
+                staleEntries.sum(),
+                checks.sum(),
+                definiteNegatives.sum(),
+                falsePositives.sum()
+        );
+    }
+}
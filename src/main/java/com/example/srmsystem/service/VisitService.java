@@ -1,6 +1,18 @@
 package com.example.srmsystem.service;
 
+import com.example.srmsystem.config.CountMinSketch;
+import com.example.srmsystem.config.HeavyHitters;
+import com.example.srmsystem.config.VisitRateCounter;
+import com.example.srmsystem.dto.UrlVisitEstimateDto;
+import com.example.srmsystem.dto.VisitDto;
+import com.example.srmsystem.dto.VisitRateDto;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 
@@ -8,20 +20,139 @@ import org.springframework.stereotype.Service;
 public class VisitService {
 
 
-    private final ConcurrentHashMap<String, Integer> visitCountMap = new ConcurrentHashMap<>();
+    // Ключ — шаблон маршрута контроллера, поэтому число ключей ограничено числом эндпоинтов
+    private final ConcurrentHashMap<String, RouteVisits> visitCountMap = new ConcurrentHashMap<>();
 
+    // Сырые URL не ограничены по числу — для них только приближённые структуры фиксированного размера
+    private final CountMinSketch rawUrlSketch;
+    private final HeavyHitters topRawUrls;
 
-    public void incrementVisit(String url) {
-        visitCountMap.merge(url, 1, Integer::sum);
+
+    public VisitService(@Value("${visits.raw-urls.epsilon:0.001}") double epsilon,
+                        @Value("${visits.raw-urls.confidence:0.99}") double confidence,
+                        @Value("${visits.raw-urls.top-capacity:128}") int topCapacity) {
+        this.rawUrlSketch = new CountMinSketch(epsilon, confidence);
+        this.topRawUrls = new HeavyHitters(rawUrlSketch, topCapacity);
+    }
+
+
+    public void recordVisit(String route, String url) {
+        incrementVisit(route);
+        // Оценка скетча отсекает редкие URL до любой блокировки в топе
+        topRawUrls.offer(url, rawUrlSketch.add(url));
+    }
+
+
+    public void incrementVisit(String route) {
+        // get не блокирует; computeIfAbsent (с блокировкой бина) нужен только для первого визита
+        RouteVisits visits = visitCountMap.get(route);
+        if (visits == null) {
+            visits = visitCountMap.computeIfAbsent(route, key -> new RouteVisits());
+        }
+        visits.total.increment();
+        visits.rates.record();
+    }
+
+
+    public long getVisitCount(String route) {
+        RouteVisits visits = visitCountMap.get(route);
+        return visits == null ? 0 : visits.total.sum();
+    }
+
+
+    public List<VisitDto> getRouteCounts() {
+        return visitCountMap.entrySet().stream()
+                .map(entry -> new VisitDto(entry.getKey(), entry.getValue().total.sum()))
+                .sorted(Comparator.comparingLong(VisitDto::getVisitCount).reversed()
+                        .thenComparing(VisitDto::getUrl))
+                .toList();
+    }
+
+
+    public List<VisitRateDto> getRouteRates(String route) {
+        return visitCountMap.entrySet().stream()
+                .filter(entry -> route == null || route.equals(entry.getKey()))
+                .map(entry -> toRateDto(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingDouble(VisitRateDto::getLastMinute).reversed()
+                        .thenComparing(VisitRateDto::getRoute))
+                .toList();
+    }
+
+
+    public UrlVisitEstimateDto estimateUrlVisits(String url) {
+        return new UrlVisitEstimateDto(url, rawUrlSketch.estimate(url), rawUrlSketch.getMaxError());
+    }
+
+
+    public List<UrlVisitEstimateDto> getTopUrls(int limit) {
+        return topRawUrls.top(Math.min(limit, topRawUrls.getCapacity()));
     }
 
 
-    public int getVisitCount(String url) {
-        return visitCountMap.getOrDefault(url, 0);
+    /**
+     * Visits counted since the last successful flush, per route. Only the flushing thread reads and advances the
+     * persisted mark, so request threads never wait for it.
+     */
+    public Map<String, Long> getUnpersistedCounts() {
+        Map<String, Long> deltas = new HashMap<>();
+        visitCountMap.forEach((route, visits) -> {
+            long delta = visits.total.sum() - visits.persisted;
+            if (delta > 0) {
+                deltas.put(route, delta);
+            }
+        });
+        return deltas;
+    }
+
+
+    public void markPersisted(Map<String, Long> deltas) {
+        deltas.forEach((route, delta) -> {
+            RouteVisits visits = visitCountMap.get(route);
+            if (visits != null) {
+                visits.persisted += delta;
+            }
+        });
+    }
+
+
+    /**
+     * Adds counts loaded from the database; they count as already persisted. Visits recorded before the restore
+     * stay pending.
+     */
+    public void restoreCounts(Map<String, Long> stored) {
+        stored.forEach((route, count) -> {
+            RouteVisits visits = visitCountMap.computeIfAbsent(route, key -> new RouteVisits());
+            visits.total.add(count);
+            visits.persisted += count;
+        });
     }
 
 
     public void clearVisitData() {
         visitCountMap.clear();
+        rawUrlSketch.clear();
+        topRawUrls.clear();
+    }
+
+
+    private static VisitRateDto toRateDto(String route, RouteVisits visits) {
+        VisitRateCounter rates = visits.rates;
+        return new VisitRateDto(route,
+                visits.total.sum(),
+                rates.ratePerSecond(1),
+                rates.ratePerSecond(10),
+                rates.ratePerSecond(60),
+                rates.ratePerSecond(5 * 60),
+                rates.ratePerSecond(15 * 60),
+                rates.ratePerSecond(60 * 60));
+    }
+
+
+    private static final class RouteVisits {
+        // LongAdder распределяет инкременты по ячейкам, поэтому горячие маршруты не дерутся за один CAS
+        private final LongAdder total = new LongAdder();
+        private final VisitRateCounter rates = new VisitRateCounter();
+        // Сколько из total уже записано в БД; меняется только потоком сброса
+        private volatile long persisted;
     }
-}
\ No newline at end of file
+}
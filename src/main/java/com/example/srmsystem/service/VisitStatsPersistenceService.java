@@ -0,0 +1,139 @@
+package com.example.srmsystem.service;
+
+import com.example.srmsystem.dto.VisitDto;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class VisitStatsPersistenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitStatsPersistenceService.class);
+
+    private static final String UPSERT = """
+            INSERT INTO visit_stats (node_id, route, visit_count, updated_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (node_id, route)
+            DO UPDATE SET visit_count = visit_stats.visit_count + EXCLUDED.visit_count,
+                          updated_at = EXCLUDED.updated_at
+            """;
+    private static final String LOAD_NODE = "SELECT route, visit_count FROM visit_stats WHERE node_id = ?";
+    private static final String CLUSTER_TOTALS = "SELECT route, SUM(visit_count) AS total FROM visit_stats GROUP BY route";
+    private static final String DELETE_NODE = "DELETE FROM visit_stats WHERE node_id = ?";
+
+    private final VisitService visitService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+
+    // Пока счётчики не восстановлены из БД, сбрасывать нельзя: восстановление прибавило бы уже записанное
+    private volatile boolean restored;
+    private long failedFlushes;
+
+    public VisitStatsPersistenceService(VisitService visitService,
+                                        DataSource dataSource,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${visits.node-id:${HOSTNAME:local}}") String nodeId) {
+        this.visitService = visitService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        flush();
+    }
+
+    /**
+     * Writes the visits counted since the last successful flush as one batched upsert. Runs on the scheduler
+     * thread; request threads only bump in-memory counters. When the database is unavailable the deltas simply
+     * keep growing in memory and go out with the next successful flush.
+     */
+    @Scheduled(initialDelayString = "${visits.persistence.flush-interval-ms:10000}",
+            fixedDelayString = "${visits.persistence.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        try {
+            if (!restored) {
+                restore();
+            }
+            Map<String, Long> deltas = visitService.getUnpersistedCounts();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            List<Object[]> rows = new ArrayList<>(deltas.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            deltas.forEach((route, delta) -> rows.add(new Object[] {nodeId, route, delta, now}));
+            // Один batch: с reWriteBatchedInserts драйвер отправляет его одним multi-row INSERT
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT, rows));
+            visitService.markPersisted(deltas);
+            if (failedFlushes > 0) {
+                log.info("Visit stats flushed again after {} failed attempts", failedFlushes);
+                failedFlushes = 0;
+            }
+            log.debug("Flushed visit stats of {} routes", rows.size());
+        } catch (DataAccessException e) {
+            failedFlushes++;
+            log.warn("Failed to flush visit stats (attempt {}), keeping deltas in memory: {}",
+                    failedFlushes, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public List<VisitDto> getClusterCounts() {
+        Map<String, Long> totals = new HashMap<>();
+        jdbcTemplate.query(CLUSTER_TOTALS, rs -> {
+            totals.put(rs.getString("route"), rs.getLong("total"));
+        });
+        // Свои ещё не сброшенные визиты добавляем сами — в БД их пока нет
+        visitService.getUnpersistedCounts().forEach((route, delta) -> totals.merge(route, delta, Long::sum));
+        return totals.entrySet().stream()
+                .map(entry -> new VisitDto(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(VisitDto::getVisitCount).reversed()
+                        .thenComparing(VisitDto::getUrl))
+                .toList();
+    }
+
+    /**
+     * Clears this node's counters in memory and in the database; other nodes keep theirs.
+     */
+    public synchronized void clear() {
+        visitService.clearVisitData();
+        try {
+            jdbcTemplate.update(DELETE_NODE, nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to delete stored visit stats of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void restore() {
+        Map<String, Long> stored = new HashMap<>();
+        jdbcTemplate.query(LOAD_NODE, rs -> {
+            stored.put(rs.getString("route"), rs.getLong("visit_count"));
+        }, nodeId);
+        visitService.restoreCounts(stored);
+        restored = true;
+        log.info("Restored visit stats of {} routes for node {}", stored.size(), nodeId);
+    }
+}
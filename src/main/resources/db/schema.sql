@@ -0,0 +1,31 @@
+-- Выполняется после обновления схемы Hibernate (spring.jpa.defer-datasource-initialization=true).
+
+-- customers: переход с IDENTITY на последовательность с шагом 50 (pooled optimizer).
+-- Последовательность сдвигается за текущий максимум id и никогда не откатывается назад.
+-- Старый IDENTITY-генератор снимается, чтобы id выдавала только последовательность.
+ALTER TABLE customers ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS customers_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('customers_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM customers) + 50,
+                       (SELECT last_value FROM customers_seq)));
+
+-- orders: тот же переход на последовательность с шагом 50.
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('orders_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM orders) + 50,
+                       (SELECT last_value FROM orders_seq)));
+
+-- orders: поиск по подстроке описания (lower(description) LIKE '%…%') идёт по триграммному индексу, а не полным сканом.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_orders_description_trgm ON orders USING gin (lower(description) gin_trgm_ops);
+
+-- visit_stats: счётчики визитов по маршрутам, по строке на узел кластера.
+-- Узел прибавляет накопленную разницу (upsert), сумма по узлам — общий счётчик кластера.
+CREATE TABLE IF NOT EXISTS visit_stats (
+    node_id     VARCHAR(128)  NOT NULL,
+    route       VARCHAR(1024) NOT NULL,
+    visit_count BIGINT        NOT NULL,
+    updated_at  TIMESTAMP     NOT NULL,
+    PRIMARY KEY (node_id, route)
+);
@@ -0,0 +1,320 @@
+package com.example.srmsystem.Benchmark;
+
+import com.example.srmsystem.dto.BulkOrderResultDto;
+import com.example.srmsystem.dto.CreateCustomerDto;
+import com.example.srmsystem.dto.CreateOrderDto;
+import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
+import com.example.srmsystem.repository.CustomerRepository;
+import com.example.srmsystem.repository.OrderRepository;
+import com.example.srmsystem.service.CustomerService;
+import com.example.srmsystem.service.OrderBulkService;
+import com.example.srmsystem.service.OrderService;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Insert throughput against a real PostgreSQL (ci profile). Not picked up by the default surefire includes;
+ * run explicitly with {@code mvn test -Dtest=InsertThroughputBenchmark}.
+ *
+ * <p>"Before" is what IDENTITY forces: one INSERT ... RETURNING round trip per row. "After" is a pooled sequence
+ * (one nextval per 50 ids) with JDBC batches of 50, measured raw and through the application's DataSeeder
+ * pattern (repository saveAll) and the bulk order and bulk customer services.
+ *
+ * <p>Entities can no longer be switched back to IDENTITY, so every application case gets two baselines of the
+ * same size: the IDENTITY round trips done over JDBC, and the entities saved one at a time (save and flush per
+ * row, or one service call per item as clients had to do before the bulk endpoints).
+ */
+@SpringBootTest
+@ActiveProfiles("ci")
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class InsertThroughputBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertThroughputBenchmark.class);
+
+    private static final int ROWS = 20_000;
+    private static final int BATCH_SIZE = 50;
+    private static final int WARMUP_ROWS = 2_000;
+    // Один запрос на элемент медленный, поэтому сервисы сравниваются на меньшем числе строк
+    private static final int PER_ITEM_ROWS = 2_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderBulkService orderBulkService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @BeforeEach
+    void createBenchmarkTables() {
+        dropBenchmarkTables();
+        jdbcTemplate.execute("CREATE TABLE bench_identity_customers (id BIGINT GENERATED BY DEFAULT AS IDENTITY "
+                + "PRIMARY KEY, username VARCHAR(255), password VARCHAR(255), email VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE bench_identity_orders (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "customer_id BIGINT, description VARCHAR(255), order_date TIMESTAMP)");
+        jdbcTemplate.execute("CREATE SEQUENCE bench_orders_seq START WITH 1 INCREMENT BY " + BATCH_SIZE);
+        jdbcTemplate.execute("CREATE TABLE bench_sequence_orders (id BIGINT PRIMARY KEY, "
+                + "customer_id BIGINT, description VARCHAR(255), order_date TIMESTAMP)");
+    }
+
+    @AfterEach
+    void dropBenchmarkTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_identity_customers");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_identity_orders");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_sequence_orders");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS bench_orders_seq");
+    }
+
+    @Test
+    void identityVersusPooledSequence() {
+        insertIdentity(WARMUP_ROWS);
+        insertSequenceBatched(WARMUP_ROWS);
+
+        long identityNanos = time(() -> insertIdentity(ROWS));
+        long sequenceNanos = time(() -> insertSequenceBatched(ROWS));
+
+        compare("Raw JDBC", ROWS,
+                "IDENTITY, row by row", identityNanos,
+                "Pooled sequence, batches of " + BATCH_SIZE, sequenceNanos);
+        assertEquals(ROWS + WARMUP_ROWS, count("bench_sequence_orders"));
+    }
+
+    @Test
+    void dataSeederPattern() {
+        int customers = 1_000;
+        int ordersPerCustomer = 5;
+        int rows = customers * (1 + ordersPerCustomer);
+        seed(100, 1, false);
+
+        long identityNanos = time(() -> insertIdentityCustomersWithOrders(customers, ordersPerCustomer));
+        long unbatchedNanos = time(() -> seed(customers, ordersPerCustomer, false));
+        long batchedNanos = time(() -> seed(customers, ordersPerCustomer, true));
+
+        compare("DataSeeder (customers + orders)", rows,
+                "IDENTITY, row by row over JDBC", identityNanos,
+                "save and flush per entity", unbatchedNanos);
+        compare("DataSeeder (customers + orders)", rows,
+                "IDENTITY, row by row over JDBC", identityNanos,
+                "saveAll, batches of " + BATCH_SIZE, batchedNanos);
+    }
+
+    @Test
+    void bulkOrderEndpoint() {
+        Customer customer = customerRepository.save(buildCustomers(1).get(0));
+        try {
+            List<CreateOrderDto> perItem = buildOrders(PER_ITEM_ROWS, customer.getId());
+            long identityNanos = time(() -> insertIdentity(PER_ITEM_ROWS));
+            // До bulk-эндпоинта клиент отправлял по запросу на заказ: своя транзакция и поиск клиента на каждый
+            long perItemNanos = time(() -> perItem.forEach(dto -> orderService.createOrderForCustomer(customer.getId(), dto)));
+
+            List<CreateOrderDto> sameSize = buildOrders(PER_ITEM_ROWS, customer.getId());
+            long sameSizeNanos = time(() -> orderBulkService.createOrders(sameSize));
+            List<CreateOrderDto> dtos = buildOrders(ROWS, customer.getId());
+            List<BulkOrderResultDto> results = new ArrayList<>();
+            long bulkNanos = time(() -> results.addAll(orderBulkService.createOrders(dtos)));
+
+            report("Orders: IDENTITY, row by row over JDBC", PER_ITEM_ROWS, identityNanos);
+            compare("Orders", PER_ITEM_ROWS,
+                    "one createOrderForCustomer call per order", perItemNanos,
+                    "bulk order service", sameSizeNanos);
+            report("Orders: bulk order service", ROWS, bulkNanos);
+            assertTrue(results.stream().allMatch(result -> BulkOrderResultDto.CREATED.equals(result.getStatus())));
+        } finally {
+            jdbcTemplate.update("DELETE FROM orders WHERE customer_id = ?", customer.getId());
+            jdbcTemplate.update("DELETE FROM customers WHERE id = ?", customer.getId());
+        }
+    }
+
+    @Test
+    void bulkCustomerEndpoint() {
+        List<CreateCustomerDto> perItem = buildCustomerDtos(PER_ITEM_ROWS, "p");
+        List<CreateCustomerDto> bulk = buildCustomerDtos(PER_ITEM_ROWS, "q");
+        try {
+            long identityNanos = time(() -> insertIdentityCustomersWithOrders(PER_ITEM_ROWS, 0));
+            long perItemNanos = time(() -> perItem.forEach(customerService::createCustomer));
+            long bulkNanos = time(() -> customerService.createCustomersBulk(bulk));
+
+            report("Customers: IDENTITY, row by row over JDBC", PER_ITEM_ROWS, identityNanos);
+            compare("Customers", PER_ITEM_ROWS,
+                    "one createCustomer call per customer", perItemNanos,
+                    "POST /api/customers/bulk (createCustomersBulk)", bulkNanos);
+        } finally {
+            deleteCustomers(perItem);
+            deleteCustomers(bulk);
+        }
+    }
+
+    // Путь DataSeeder: клиенты, затем их заказы; транзакция откатывается
+    private void seed(int customers, int ordersPerCustomer, boolean batched) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Customer> savedCustomers = batched
+                    ? customerRepository.saveAll(buildCustomers(customers))
+                    : buildCustomers(customers).stream().map(customerRepository::saveAndFlush).toList();
+            List<Order> orders = new ArrayList<>();
+            for (Customer customer : savedCustomers) {
+                for (int j = 0; j < ordersPerCustomer; j++) {
+                    Order order = new Order();
+                    order.setDescription("Benchmark order " + j);
+                    order.setOrderDate(LocalDateTime.now());
+                    order.setCustomer(customer);
+                    orders.add(order);
+                }
+            }
+            if (batched) {
+                orderRepository.saveAll(orders);
+            } else {
+                orders.forEach(orderRepository::saveAndFlush);
+            }
+            orderRepository.flush();
+            status.setRollbackOnly();
+        });
+    }
+
+    private void insertIdentityCustomersWithOrders(int customers, int ordersPerCustomer) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < customers; i++) {
+                Long customerId = jdbcTemplate.queryForObject("INSERT INTO bench_identity_customers "
+                        + "(username, password, email) VALUES (?, ?, ?) RETURNING id", Long.class,
+                        "user" + i, "password" + i, "bench" + i + "@example.com");
+                for (int j = 0; j < ordersPerCustomer; j++) {
+                    assertNotNull(jdbcTemplate.queryForObject("INSERT INTO bench_identity_orders "
+                            + "(customer_id, description, order_date) VALUES (?, ?, ?) RETURNING id", Long.class,
+                            customerId, "Benchmark order " + j, Timestamp.valueOf(LocalDateTime.now())));
+                }
+            }
+        });
+    }
+
+    private void insertIdentity(int rows) {
+        for (int i = 0; i < rows; i++) {
+            Long id = jdbcTemplate.queryForObject("INSERT INTO bench_identity_orders (customer_id, description, order_date) "
+                    + "VALUES (?, ?, ?) RETURNING id", Long.class, (long) i % 100, "Order " + i, Timestamp.valueOf(LocalDateTime.now()));
+            assertNotNull(id);
+        }
+    }
+
+    private void insertSequenceBatched(int rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < rows; from += BATCH_SIZE) {
+                // pooled: один nextval даёт верхнюю границу блока из BATCH_SIZE id
+                long hi = jdbcTemplate.queryForObject("SELECT nextval('bench_orders_seq')", Long.class);
+                long lo = hi - BATCH_SIZE + 1;
+                int size = Math.min(BATCH_SIZE, rows - from);
+                int offset = from;
+                jdbcTemplate.batchUpdate("INSERT INTO bench_sequence_orders (id, customer_id, description, order_date) "
+                        + "VALUES (?, ?, ?, ?)", new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                ps.setLong(1, lo + i);
+                                ps.setLong(2, (long) (offset + i) % 100);
+                                ps.setString(3, "Order " + (offset + i));
+                                ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return size;
+                            }
+                        });
+            }
+        });
+    }
+
+    private static List<CreateOrderDto> buildOrders(int count, Long customerId) {
+        List<CreateOrderDto> dtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dtos.add(new CreateOrderDto("Bulk benchmark " + i, LocalDateTime.now(), customerId));
+        }
+        return dtos;
+    }
+
+    private static List<CreateCustomerDto> buildCustomerDtos(int count, String prefix) {
+        long seed = System.nanoTime() % 1_000_000;
+        List<CreateCustomerDto> dtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dtos.add(new CreateCustomerDto(prefix + seed + "_" + i, "password" + i,
+                    "bench" + prefix + seed + "_" + i + "@example.com"));
+        }
+        return dtos;
+    }
+
+    private void deleteCustomers(List<CreateCustomerDto> dtos) {
+        jdbcTemplate.batchUpdate("DELETE FROM customers WHERE username = ?",
+                dtos.stream().map(dto -> new Object[]{dto.getUsername()}).toList());
+    }
+
+    private List<Customer> buildCustomers(int count) {
+        long seed = System.nanoTime() % 1_000_000;
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Customer customer = new Customer();
+            customer.setUsername("b" + seed + "_" + i);
+            customer.setPassword("password" + i);
+            customer.setEmail("bench" + seed + "_" + i + "@example.com");
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private static long time(Runnable action) {
+        long started = System.nanoTime();
+        action.run();
+        return System.nanoTime() - started;
+    }
+
+    private static void report(String name, int rows, long nanos) {
+        log.info("{}: {} rows in {} ms = {} rows/s", name, rows,
+                String.format("%.1f", nanos / 1_000_000.0), String.format("%.0f", rowsPerSecond(rows, nanos)));
+    }
+
+    /**
+     * Logs two runs over the same number of rows and how much faster the second one was.
+     */
+    private static void compare(String scenario, int rows, String baseline, long baselineNanos,
+                                String optimized, long optimizedNanos) {
+        report(scenario + ": " + baseline, rows, baselineNanos);
+        report(scenario + ": " + optimized, rows, optimizedNanos);
+        log.info("{}: {} is {}x faster than {}", scenario, optimized,
+                String.format("%.1f", (double) baselineNanos / Math.max(optimizedNanos, 1)), baseline);
+    }
+
+    private static double rowsPerSecond(int rows, long nanos) {
+        return rows / (Math.max(nanos, 1) / 1_000_000_000.0);
+    }
+}
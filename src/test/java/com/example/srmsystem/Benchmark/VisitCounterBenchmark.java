@@ -0,0 +1,107 @@
+package com.example.srmsystem.Benchmark;
+
+import com.example.srmsystem.service.VisitService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Visit counter throughput: the previous {@code ConcurrentHashMap<String, Integer>.merge} store against the
+ * {@link VisitService} one, with a skewed URL mix where a single URL takes half of the traffic.
+ *
+ * <p>Run after {@code mvn test-compile} with the test classpath:
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.example.srmsystem.Benchmark.VisitCounterBenchmark}
+ * (the classpath can be printed with {@code mvn dependency:build-classpath -Dmdep.includeScope=test}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitCounterBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int URL_COUNT = 64;
+    private static final int KEY_SEQUENCE_LENGTH = 4096;
+
+    private static final String[] URLS = new String[URL_COUNT];
+
+    static {
+        for (int i = 0; i < URL_COUNT; i++) {
+            URLS[i] = "/api/customers/" + i + "/orders";
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Counters {
+        final ConcurrentHashMap<String, Integer> legacy = new ConcurrentHashMap<>();
+        final VisitService striped = new VisitService(0.001, 0.99, 128);
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            // Ключи уже есть в картах: меряем установившийся режим, а не первые вставки
+            legacy.clear();
+            striped.clearVisitData();
+            for (String url : URLS) {
+                legacy.put(url, 0);
+                striped.incrementVisit(url);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+        final String[] sequence = new String[KEY_SEQUENCE_LENGTH];
+        int next;
+
+        @Setup
+        public void setUp() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < sequence.length; i++) {
+                // Половина запросов в один горячий URL, остальные — равномерно
+                sequence[i] = random.nextBoolean() ? URLS[0] : URLS[random.nextInt(URL_COUNT)];
+            }
+        }
+
+        String nextUrl() {
+            String url = sequence[next];
+            next = (next + 1) & (KEY_SEQUENCE_LENGTH - 1);
+            return url;
+        }
+    }
+
+    @Benchmark
+    public void legacyMerge(Counters counters, Keys keys) {
+        counters.legacy.merge(keys.nextUrl(), 1, Integer::sum);
+    }
+
+    @Benchmark
+    public void stripedAdder(Counters counters, Keys keys) {
+        counters.striped.incrementVisit(keys.nextUrl());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(VisitCounterBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
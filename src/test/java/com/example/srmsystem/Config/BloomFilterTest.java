@@ -0,0 +1,60 @@
+package com.example.srmsystem.Config;
+
+import com.example.srmsystem.config.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 50_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void mightContain_neverMissesInsertedValues() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user" + i);
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("user" + i), "false negative for user" + i);
+        }
+        assertEquals(INSERTIONS, filter.getInsertions());
+    }
+
+    @Test
+    void mightContain_falsePositiveRateStaysNearConfiguredRate() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user" + i);
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("guest" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double measured = (double) falsePositives / probes;
+        // При заполнении до расчётной ёмкости частота ложных срабатываний близка к заданной
+        assertTrue(measured < FALSE_POSITIVE_RATE * 1.5, "measured false positive rate " + measured);
+        assertEquals(FALSE_POSITIVE_RATE, filter.getEstimatedFalsePositiveRate(), FALSE_POSITIVE_RATE * 0.5);
+    }
+
+    @Test
+    void mightContain_nonAsciiValues() {
+        BloomFilter filter = new BloomFilter(100, FALSE_POSITIVE_RATE);
+        filter.put("пользователь");
+
+        assertTrue(filter.mightContain("пользователь"));
+    }
+
+    @Test
+    void constructor_rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, FALSE_POSITIVE_RATE));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(INSERTIONS, 1));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.srmsystem.Config;
+
+import com.example.srmsystem.config.CacheConfig;
+import com.example.srmsystem.dto.DisplayCustomerDto;
+import com.example.srmsystem.dto.DisplayOrderDto;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A cache fill from a read races with writes that commit while the read is in flight. The write is newer, so the
+ * fill must never replace or resurrect what the write left in the cache.
+ */
+class CacheConfigTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig(100, 100);
+
+    @Test
+    void putCustomerIfUnchanged_whenCustomerUpdatedDuringRead_thenKeepsUpdate() {
+        long generation = cacheConfig.customerGeneration(1L);
+        // Обновление коммитится, пока чтение ещё идёт
+        cacheConfig.putCustomer(customer(1L, "fresh"));
+
+        cacheConfig.putCustomerIfUnchanged(customer(1L, "stale"), generation);
+
+        assertEquals("fresh", cacheConfig.getCustomer(1L).getEmail());
+    }
+
+    @Test
+    void putCustomerIfUnchanged_whenCustomerRemovedDuringRead_thenLeavesCacheEmpty() {
+        cacheConfig.putCustomer(customer(1L, "cached"));
+        long generation = cacheConfig.customerGeneration(1L);
+        cacheConfig.removeCustomer(1L);
+
+        cacheConfig.putCustomerIfUnchanged(customer(1L, "stale"), generation);
+
+        assertNull(cacheConfig.getCustomer(1L));
+    }
+
+    @Test
+    void putCustomerIfUnchanged_whenNoWriteDuringRead_thenCachesCustomer() {
+        long generation = cacheConfig.customerGeneration(1L);
+        cacheConfig.putCustomer(customer(2L, "other"));
+
+        cacheConfig.putCustomerIfUnchanged(customer(1L, "read"), generation);
+
+        assertEquals("read", cacheConfig.getCustomer(1L).getEmail());
+    }
+
+    @Test
+    void putOrdersIfUnchanged_whenOrderRemovedDuringRead_thenDoesNotCacheRemovedOrder() {
+        long generation = cacheConfig.ordersGeneration(1L);
+        // Удаление не находит списка в кэше, но всё равно сдвигает поколение
+        cacheConfig.removeOrder(1L, 10L);
+
+        cacheConfig.putOrdersIfUnchanged(1L, List.of(order(10L, 1L)), generation);
+
+        assertNull(cacheConfig.getOrders(1L));
+    }
+
+    @Test
+    void putOrdersIfUnchanged_whenNoWriteDuringRead_thenCachesOrders() {
+        long generation = cacheConfig.ordersGeneration(1L);
+
+        cacheConfig.putOrdersIfUnchanged(1L, List.of(order(10L, 1L)), generation);
+
+        assertEquals(List.of(order(10L, 1L)), cacheConfig.getOrders(1L));
+    }
+
+    private static DisplayCustomerDto customer(Long id, String email) {
+        return new DisplayCustomerDto(id, "user" + id, email, null, null, null, List.of());
+    }
+
+    private static DisplayOrderDto order(Long id, Long customerId) {
+        return new DisplayOrderDto(id, "order", null, customerId, "user" + customerId, null, null);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.srmsystem.Config;
+
+import com.example.srmsystem.config.CountMinSketch;
+import com.example.srmsystem.config.HeavyHitters;
+import com.example.srmsystem.dto.UrlVisitEstimateDto;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    private final CountMinSketch sketch = new CountMinSketch(0.001, 0.99);
+
+    @Test
+    void offer_whenFull_thenKeyBelowSmallestTrackedEstimateStaysOut() {
+        HeavyHitters topKeys = new HeavyHitters(sketch, 2);
+        record(topKeys, "a", 5);
+        record(topKeys, "b", 3);
+
+        record(topKeys, "c", 2);
+
+        List<String> keys = topKeys.top(10).stream().map(UrlVisitEstimateDto::getUrl).toList();
+        assertEquals(List.of("a", "b"), keys);
+    }
+
+    @Test
+    void offer_whenKeyOvertakesSmallestTrackedOne_thenReplacesIt() {
+        HeavyHitters topKeys = new HeavyHitters(sketch, 2);
+        record(topKeys, "a", 5);
+        record(topKeys, "b", 3);
+
+        record(topKeys, "c", 4);
+
+        List<UrlVisitEstimateDto> top = topKeys.top(10);
+        assertEquals(List.of("a", "c"), top.stream().map(UrlVisitEstimateDto::getUrl).toList());
+        assertEquals(4, top.get(1).getCount());
+        assertEquals(sketch.getMaxError(), top.get(1).getError());
+    }
+
+    private void record(HeavyHitters topKeys, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            topKeys.offer(key, sketch.add(key));
+        }
+    }
+}
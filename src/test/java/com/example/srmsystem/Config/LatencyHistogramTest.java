@@ -0,0 +1,71 @@
+package com.example.srmsystem.Config;
+
+import com.example.srmsystem.config.LatencyHistogram;
+import com.example.srmsystem.dto.RouteLatencyDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    private static final long HIGHEST_MICROS = 60_000_000L;
+
+    @Test
+    void snapshot_percentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(6, HIGHEST_MICROS);
+        // 1..10000 мс по одному разу
+        for (long ms = 1; ms <= 10_000; ms++) {
+            histogram.record(ms * 1000, 200);
+        }
+
+        RouteLatencyDto latency = histogram.snapshot("/api/customers/{id}");
+
+        assertEquals(10_000, latency.getCount());
+        assertEquals(5000, latency.getP50Ms(), 5000 * 0.035);
+        assertEquals(9000, latency.getP90Ms(), 9000 * 0.035);
+        assertEquals(9900, latency.getP99Ms(), 9900 * 0.035);
+        assertEquals(9990, latency.getP999Ms(), 9990 * 0.035);
+        assertEquals(10_000, latency.getMaxMs(), 1e-9);
+        assertEquals(5000.5, latency.getMeanMs(), 1e-6);
+    }
+
+    @Test
+    void snapshot_countsStatusClasses() {
+        LatencyHistogram histogram = new LatencyHistogram(6, HIGHEST_MICROS);
+        histogram.record(100, 200);
+        histogram.record(100, 201);
+        histogram.record(100, 404);
+        histogram.record(100, 500);
+
+        assertEquals(Map.of("2xx", 2L, "4xx", 1L, "5xx", 1L), histogram.snapshot("/").getStatusCounts());
+    }
+
+    @Test
+    void rotate_dropsSlicesOlderThanTheWindow() {
+        LatencyHistogram histogram = new LatencyHistogram(3, HIGHEST_MICROS);
+        histogram.record(50_000, 200);
+
+        for (int i = 0; i < 3; i++) {
+            histogram.rotate();
+            assertEquals(1, histogram.snapshot("/").getCount());
+        }
+        histogram.rotate();
+        histogram.record(1_000, 200);
+
+        RouteLatencyDto latency = histogram.snapshot("/");
+        assertEquals(1, latency.getCount());
+        assertEquals(1, latency.getMaxMs(), 1e-9);
+    }
+
+    @Test
+    void record_valuesAboveHighestTrackableKeepExactMax() {
+        LatencyHistogram histogram = new LatencyHistogram(6, 1_000_000L);
+        histogram.record(5_000_000L, 200);
+
+        RouteLatencyDto latency = histogram.snapshot("/");
+        assertEquals(5000, latency.getMaxMs(), 1e-9);
+        assertTrue(latency.getP99Ms() >= 1000 && latency.getP99Ms() <= 5000);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.srmsystem.Config;
+
+import com.example.srmsystem.config.OrderColumnStore;
+import com.example.srmsystem.dto.CustomerOrderCountDto;
+import com.example.srmsystem.dto.DailyOrderCountDto;
+import com.example.srmsystem.dto.DescriptionCountDto;
+import com.example.srmsystem.dto.OrderSnapshotStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderColumnStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    void upsert_updatesExistingRowInPlace() {
+        OrderColumnStore store = new OrderColumnStore();
+        store.upsert(1L, 10L, START, "first");
+        store.upsert(2L, 10L, START, "second");
+
+        store.upsert(1L, 20L, START.plusDays(1), "moved");
+
+        assertEquals(2, store.getStats().getLiveRows());
+        assertEquals(1, store.count(null, null, 10L));
+        assertEquals(1, store.count(null, null, 20L));
+        assertEquals(0, store.count(null, null, 30L));
+        assertEquals(List.of(new DailyOrderCountDto(START.toLocalDate(), 1),
+                        new DailyOrderCountDto(START.toLocalDate().plusDays(1), 1)),
+                store.countByDay(null, null));
+    }
+
+    @Test
+    void count_ordersWithoutDateOnlyMatchUnboundedRange() {
+        OrderColumnStore store = new OrderColumnStore();
+        store.upsert(1L, 10L, null, "undated");
+        store.upsert(2L, 10L, START, "dated");
+
+        assertEquals(2, store.count(null, null, null));
+        assertEquals(1, store.count(null, START.plusDays(1), null));
+        assertEquals(1, store.count(START, null, null));
+    }
+
+    @Test
+    void remove_tombstonesRowsAndCompactsOnceAQuarterIsDeleted() {
+        OrderColumnStore store = new OrderColumnStore();
+        for (long id = 1; id <= 4000; id++) {
+            store.upsert(id, id % 7, START.plusMinutes(id), "order");
+        }
+
+        for (long id = 1; id <= 1000; id++) {
+            store.remove(id);
+        }
+        store.remove(1L);
+        OrderSnapshotStatsDto beforeCompaction = store.getStats();
+        assertEquals(3000, beforeCompaction.getLiveRows());
+        assertEquals(1000, beforeCompaction.getTombstones());
+
+        for (long id = 1001; id <= 1024; id++) {
+            store.remove(id);
+        }
+        OrderSnapshotStatsDto afterCompaction = store.getStats();
+        assertEquals(2976, afterCompaction.getLiveRows());
+        assertEquals(0, afterCompaction.getTombstones());
+
+        // После сжатия строки переехали, но индекс по id должен указывать на них
+        store.upsert(4000L, 99L, START, "updated");
+        store.remove(2000L);
+        assertEquals(2975, store.count(null, null, null));
+        assertEquals(1, store.count(null, null, 99L));
+        assertEquals(List.of(new DescriptionCountDto("order", 2974), new DescriptionCountDto("updated", 1)),
+                store.topDescriptions(5));
+    }
+
+    @Test
+    void removeCustomer_dropsAllOfItsOrders() {
+        OrderColumnStore store = new OrderColumnStore();
+        store.upsert(1L, 10L, START, "a");
+        store.upsert(2L, 10L, START, "b");
+        store.upsert(3L, 20L, START, "c");
+
+        store.removeCustomer(10L);
+        store.removeCustomer(404L);
+
+        assertEquals(0, store.count(null, null, 10L));
+        assertEquals(List.of(new CustomerOrderCountDto(20L, 1)), store.topCustomers(10, null, null));
+    }
+
+    @Test
+    void aggregates_overSeveralParallelChunksMatchSequentialCounts() {
+        OrderColumnStore store = new OrderColumnStore();
+        int rows = 300_000;
+        Map<Long, Long> perCustomer = new TreeMap<>();
+        Map<LocalDate, Long> perDay = new TreeMap<>();
+        long inRange = 0;
+        LocalDateTime from = START.plusDays(10);
+        LocalDateTime to = START.plusDays(20);
+        for (long id = 1; id <= rows; id++) {
+            long customerId = id % 97;
+            LocalDateTime orderDate = START.plusMinutes(id * 7 % 50_000);
+            store.upsert(id, customerId, orderDate, "item" + id % 13);
+            perDay.merge(orderDate.toLocalDate(), 1L, Long::sum);
+            if (!orderDate.isBefore(from) && orderDate.isBefore(to)) {
+                perCustomer.merge(customerId, 1L, Long::sum);
+                inRange++;
+            }
+        }
+
+        assertEquals(inRange, store.count(from, to, null));
+        assertEquals(perCustomer.get(5L).longValue(), store.count(from, to, 5L));
+
+        List<DailyOrderCountDto> expectedDays = new ArrayList<>();
+        perDay.forEach((day, count) -> expectedDays.add(new DailyOrderCountDto(day, count)));
+        assertEquals(expectedDays, store.countByDay(null, null));
+
+        List<CustomerOrderCountDto> top = store.topCustomers(3, from, to);
+        assertEquals(3, top.size());
+        long maxCount = perCustomer.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+        assertEquals(maxCount, top.get(0).getCount());
+        for (CustomerOrderCountDto customer : top) {
+            assertEquals(perCustomer.get(customer.getCustomerId()).longValue(), customer.getCount());
+        }
+
+        assertEquals(13, store.topDescriptions(20).size());
+        assertEquals(rows, store.topDescriptions(20).stream().mapToLong(DescriptionCountDto::getCount).sum());
+    }
+
+    @Test
+    void getStats_includesIndexesInMemoryEstimate() {
+        OrderColumnStore store = new OrderColumnStore();
+        long empty = store.getStats().getMemoryBytes();
+        for (long id = 1; id <= 10_000; id++) {
+            store.upsert(id, id, START, "order");
+        }
+
+        OrderSnapshotStatsDto stats = store.getStats();
+        // Колонки: 24 байта на строку; индексы по id и по клиенту добавляют ещё не меньше 24 байт на строку
+        assertTrue(stats.getMemoryBytes() - empty >= 10_000L * (24 + 24), "memory " + stats.getMemoryBytes());
+        assertEquals(10_000, stats.getCustomers());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.srmsystem.Config;
+
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
+import com.example.srmsystem.config.ReplicaLagMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded H2 databases stand in for the primary and the replica; each one knows its own name.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds DOUBLE)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+        lagMonitor = new ReplicaLagMonitor(replica, LAG_QUERY, 5);
+        lagMonitor.check();
+    }
+
+    @Test
+    void readOnlyTransaction_goesToReplica() {
+        Routing routing = new Routing(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+
+        assertEquals("replica", routing.nodeName(true));
+        assertEquals(1, routing.dataSource.getStats().getReplicaConnections());
+    }
+
+    @Test
+    void readWriteTransactionAndNoTransaction_goToPrimary() {
+        Routing routing = new Routing(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+
+        assertEquals("primary", routing.nodeName(false));
+        assertEquals("primary", routing.jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        assertEquals(0, routing.dataSource.getStats().getReplicaConnections());
+    }
+
+    @Test
+    void laggingReplica_readsFallBackToPrimaryUntilItCatchesUp() {
+        Routing routing = new Routing(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+        lagMonitor.check();
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", routing.nodeName(true));
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 1");
+        lagMonitor.check();
+        assertEquals("replica", routing.nodeName(true));
+        assertEquals(1, routing.dataSource.getStats().getReadOnlyOnPrimary());
+    }
+
+    @Test
+    void unreachableReplica_readsFallBackToPrimary() {
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", "");
+        Routing routing = new Routing(new ReadWriteRoutingDataSource(primary, missing, lagMonitor));
+
+        assertEquals("primary", routing.nodeName(true));
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertNotNull(lagMonitor.getLastError());
+    }
+
+    @Test
+    void onPrimary_overridesReadOnlyTransaction() {
+        Routing routing = new Routing(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+
+        assertEquals("primary", ReadWriteRoutingDataSource.onPrimary(() -> routing.nodeName(true)));
+        assertEquals("replica", routing.nodeName(true));
+    }
+
+    @Test
+    void explicitCredentials_areRoutedLikeThePooledConnections() throws SQLException {
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, replica, lagMonitor);
+
+        assertEquals("primary", nodeName(dataSource.getConnection("sa", "")));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertEquals("replica", nodeName(dataSource.getConnection("sa", "")));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    void noReplicaConfigured_everythingGoesToPrimary() {
+        Routing routing = new Routing(new ReadWriteRoutingDataSource(primary, null, null));
+
+        assertEquals("primary", routing.nodeName(true));
+        assertFalse(routing.dataSource.getStats().isConfigured());
+    }
+
+    private static String nodeName(Connection connection) throws SQLException {
+        try (connection; ResultSet resultSet = connection.createStatement().executeQuery("SELECT name FROM node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static final class Routing {
+        private final ReadWriteRoutingDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+
+        private Routing(ReadWriteRoutingDataSource dataSource) {
+            // Та же обвязка, что и в DataSourceRoutingConfig
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSource);
+            proxy.setDefaultAutoCommit(true);
+            proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(proxy);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+        }
+
+        private String nodeName(boolean readOnly) {
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+}
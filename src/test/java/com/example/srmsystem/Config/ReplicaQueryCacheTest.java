@@ -0,0 +1,174 @@
+package com.example.srmsystem.Config;
+
+import com.example.srmsystem.config.ReadWriteRoutingDataSource;
+import com.example.srmsystem.config.ReplicaCacheModeJpaDialect;
+import com.example.srmsystem.config.ReplicaLagMonitor;
+import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
+import com.example.srmsystem.repository.CustomerRepository;
+import com.example.srmsystem.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The replica is a copy of the primary taken before the last update, so every read it serves is stale. Such
+ * reads must not reach the query or entity caches, where later readers on either node would get them.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaQueryCacheTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Test
+    void readsServedByReplica_doNotFillQueryOrEntityCache() {
+        Order order = new TransactionTemplate(transactionManager).execute(status -> {
+            Customer customer = new Customer();
+            customer.setUsername("replica" + UUID.randomUUID().toString().substring(0, 8));
+            customer.setPassword("password");
+            customer.setEmail("replica@example.com");
+            customer = customerRepository.save(customer);
+            Order created = new Order();
+            created.setDescription("stale");
+            created.setCustomer(customer);
+            return orderRepository.save(created);
+        });
+        Long customerId = order.getCustomer().getId();
+        copyDatabase(primary, replica);
+        // Обновление, до которого реплика ещё не дошла
+        new JdbcTemplate(primary).update("UPDATE orders SET description = ? WHERE id = ?", "fresh", order.getId());
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long replicaConnections = routingDataSource.getStats().getReplicaConnections();
+
+        TransactionTemplate reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        assertEquals("stale", reads.execute(status ->
+                orderRepository.findByCustomerIdAndId(customerId, order.getId()).getDescription()));
+        assertEquals(replicaConnections + 1, routingDataSource.getStats().getReplicaConnections());
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+        // Hibernate засчитывает put и тогда, когда регион его отбросил, поэтому проверяем повторным чтением
+        assertEquals("stale", reads.execute(status ->
+                orderRepository.findByCustomerIdAndId(customerId, order.getId()).getDescription()));
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertEquals(replicaConnections + 2, routingDataSource.getStats().getReplicaConnections());
+
+        assertEquals("fresh", ReadWriteRoutingDataSource.onPrimary(() ->
+                orderRepository.findByCustomerIdAndId(customerId, order.getId()).getDescription()));
+        assertEquals(0, statistics.getQueryCacheHitCount());
+
+        // Кэш, заполненный с primary, читать можно и в транзакциях, идущих на реплику
+        assertEquals("fresh", reads.execute(status ->
+                orderRepository.findByCustomerIdAndId(customerId, order.getId()).getDescription()));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private static void copyDatabase(DataSource source, DataSource target) {
+        List<String> script = new JdbcTemplate(source).queryForList("SCRIPT", String.class);
+        JdbcTemplate targetTemplate = new JdbcTemplate(target);
+        targetTemplate.execute("DROP ALL OBJECTS");
+        script.forEach(targetTemplate::execute);
+    }
+
+    @TestConfiguration
+    static class RoutingConfig {
+
+        @Bean
+        DataSource primaryDataSource() {
+            return database("primary");
+        }
+
+        @Bean
+        DataSource replicaDataSource() {
+            return database("replica");
+        }
+
+        @Bean
+        ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+            ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replicaDataSource, "SELECT CAST(0 AS DOUBLE)", 5);
+            lagMonitor.check();
+            return lagMonitor;
+        }
+
+        @Bean
+        ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                     @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                     ReplicaLagMonitor replicaLagMonitor) {
+            return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor);
+        }
+
+        // Та же обвязка, что и в DataSourceRoutingConfig
+        @Bean
+        @Primary
+        DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+            dataSource.setDefaultAutoCommit(true);
+            dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            return dataSource;
+        }
+
+        @Bean
+        static BeanPostProcessor replicaCacheModeInstaller(ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+            return ReplicaCacheModeJpaDialect.installer(routingDataSource);
+        }
+
+        private static DataSource database(String name) {
+            return new DriverManagerDataSource(
+                    "jdbc:h2:mem:" + name + "_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        }
+    }
+}
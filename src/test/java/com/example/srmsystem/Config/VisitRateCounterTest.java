@@ -0,0 +1,76 @@
+package com.example.srmsystem.Config;
+
+import com.example.srmsystem.config.VisitRateCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisitRateCounterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(5 * SECOND);
+    private VisitRateCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new VisitRateCounter(clock::get);
+    }
+
+    @Test
+    void ratePerSecond_countsOnlyCompleteSecondsOfTheWindow() {
+        for (int second = 0; second < 10; second++) {
+            record(second + 1);
+            advance(SECOND);
+        }
+        // Текущая секунда ещё не закончилась и в окно не входит
+        record(100);
+
+        assertEquals(10, counter.ratePerSecond(1), 1e-9);
+        assertEquals(5.5, counter.ratePerSecond(10), 1e-9);
+        assertEquals(5.5, counter.ratePerSecond(60), 1e-9);
+    }
+
+    @Test
+    void ratePerSecond_forgetsBucketsOlderThanTheWindow() {
+        record(600);
+        advance(2 * 60 * SECOND);
+        record(1);
+        advance(SECOND);
+
+        assertEquals(1, counter.ratePerSecond(1), 1e-9);
+        assertEquals(1.0 / 60, counter.ratePerSecond(60), 1e-9);
+    }
+
+    @Test
+    void ratePerSecond_longWindowsUseMinuteBuckets() {
+        for (int minute = 0; minute < 90; minute++) {
+            record(minute < 30 ? 60 : 120);
+            advance(60 * SECOND);
+        }
+
+        assertEquals(2, counter.ratePerSecond(5 * 60), 1e-9);
+        assertEquals(2, counter.ratePerSecond(60 * 60), 1e-9);
+    }
+
+    @Test
+    void ratePerSecond_beforeTheFirstMinuteEndsFallsBackToSeconds() {
+        record(30);
+        advance(3 * SECOND);
+
+        assertEquals(10, counter.ratePerSecond(60 * 60), 1e-9);
+    }
+
+    private void record(int times) {
+        for (int i = 0; i < times; i++) {
+            counter.record();
+        }
+    }
+
+    private void advance(long nanos) {
+        clock.addAndGet(nanos);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.srmsystem.Service;
+
+import com.example.srmsystem.config.CacheConfig;
+import com.example.srmsystem.dto.DisplayCustomerDto;
+import com.example.srmsystem.mapper.CustomerMapper;
+import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
+import com.example.srmsystem.service.CustomerService;
+import com.example.srmsystem.service.OrderSnapshotService;
+import com.example.srmsystem.service.OrderStatsService;
+import com.example.srmsystem.service.UsernameFilterService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+@Import({CustomerService.class, UsernameFilterService.class, OrderStatsService.class,
+        OrderSnapshotService.class, CustomerMapper.class, CacheConfig.class})
+class CustomerServiceQueryCountTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int customerSequence;
+
+    @Test
+    void getAllCustomers_whenDataGrows_thenStatementCountStaysFixed() {
+        seedCustomers(3, 2);
+        long smallDatasetStatements = countStatementsOfGetAllCustomers(3, 6);
+
+        seedCustomers(40, 3);
+        long largeDatasetStatements = countStatementsOfGetAllCustomers(43, 126);
+
+        assertEquals(smallDatasetStatements, largeDatasetStatements);
+        assertEquals(1, largeDatasetStatements);
+    }
+
+    private long countStatementsOfGetAllCustomers(int expectedCustomers, int expectedOrders) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<DisplayCustomerDto> customers = customerService.getAllCustomers();
+
+        assertEquals(expectedCustomers, customers.size());
+        assertEquals(expectedOrders, customers.stream().mapToInt(customer -> customer.getOrders().size()).sum());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedCustomers(int customers, int ordersPerCustomer) {
+        for (int i = 0; i < customers; i++) {
+            customerSequence++;
+            Customer customer = new Customer();
+            customer.setUsername("user" + customerSequence);
+            customer.setPassword("password" + customerSequence);
+            customer.setEmail("user" + customerSequence + "@example.com");
+            entityManager.persist(customer);
+            for (int j = 0; j < ordersPerCustomer; j++) {
+                Order order = new Order();
+                order.setDescription("Order " + j + " of customer " + customerSequence);
+                order.setCustomer(customer);
+                entityManager.persist(order);
+            }
+        }
+    }
+}
@@ -2,16 +2,25 @@ package com.example.srmsystem.Service;
 
 import com.example.srmsystem.config.CacheConfig;
 import com.example.srmsystem.dto.CreateCustomerDto;
+import com.example.srmsystem.dto.CustomerPageDto;
 import com.example.srmsystem.dto.DisplayCustomerDto;
 import com.example.srmsystem.exception.EntityNotFoundException;
+import com.example.srmsystem.exception.UsernameConflictException;
 import com.example.srmsystem.exception.ValidationException;
 import com.example.srmsystem.mapper.CustomerMapper;
 import com.example.srmsystem.model.Customer;
 import com.example.srmsystem.repository.CustomerRepository;
+import com.example.srmsystem.repository.OrderRepository;
 import com.example.srmsystem.service.CustomerService;
+import com.example.srmsystem.service.OrderSnapshotService;
+import com.example.srmsystem.service.OrderStatsService;
+import com.example.srmsystem.service.UsernameFilterService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import java.sql.SQLException;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,15 +34,28 @@ class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private OrderRepository orderRepository;
+
     @Mock
     private CustomerMapper customerMapper;
 
     @Mock
     private CacheConfig cacheConfig;
 
+    @Mock
+    private UsernameFilterService usernameFilterService;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private OrderSnapshotService orderSnapshotService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(usernameFilterService.mightExist(anyString())).thenReturn(true);
     }
 
 
@@ -43,7 +65,7 @@ class CustomerServiceTest {
     void getCustomerById_whenCustomerInCache_thenReturnFromCache() {
         DisplayCustomerDto cachedCustomer = new DisplayCustomerDto();
         cachedCustomer.setId(1L);
-        when(cacheConfig.getAllCustomers()).thenReturn(List.of(cachedCustomer));
+        when(cacheConfig.getCustomer(1L)).thenReturn(cachedCustomer);
 
         DisplayCustomerDto result = customerService.getCustomerById(1L);
 
@@ -53,26 +75,69 @@ class CustomerServiceTest {
 
     @Test
     void getCustomerById_whenNotInCache_thenFetchFromDb() {
-        when(cacheConfig.getAllCustomers()).thenReturn(null);
+        when(cacheConfig.getCustomer(1L)).thenReturn(null);
+        when(cacheConfig.customerGeneration(1L)).thenReturn(5L);
         Customer customer = new Customer();
+        DisplayCustomerDto customerDto = new DisplayCustomerDto();
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(customerMapper.toDisplayCustomerDto(customer)).thenReturn(new DisplayCustomerDto());
+        when(customerMapper.toDisplayCustomerDto(customer)).thenReturn(customerDto);
 
         DisplayCustomerDto result = customerService.getCustomerById(1L);
 
         assertNotNull(result);
         verify(customerRepository).findById(1L);
-        verify(cacheConfig).putAllCustomers(anyList());
+        verify(customerRepository, never()).findAll();
+        InOrder inOrder = inOrder(cacheConfig, customerRepository);
+        inOrder.verify(cacheConfig).customerGeneration(1L);
+        inOrder.verify(customerRepository).findById(1L);
+        inOrder.verify(cacheConfig).putCustomerIfUnchanged(customerDto, 5L);
+        verify(cacheConfig, never()).putCustomer(any());
     }
 
     @Test
     void getCustomerById_whenNotFound_thenThrowException() {
-        when(cacheConfig.getAllCustomers()).thenReturn(null);
+        when(cacheConfig.getCustomer(1L)).thenReturn(null);
         when(customerRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> customerService.getCustomerById(1L));
     }
 
+    // --- getCustomersPage() ---
+
+    @Test
+    void getCustomersPage_whenMoreRowsThanLimit_thenReturnNextCursor() {
+        Customer first = new Customer();
+        first.setId(11L);
+        Customer second = new Customer();
+        second.setId(12L);
+        Customer extra = new Customer();
+        extra.setId(13L);
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Limit.class)))
+                .thenReturn(List.of(first, second, extra));
+        when(orderRepository.findByCustomerIdIn(List.of(11L, 12L))).thenReturn(List.of());
+        when(customerMapper.toDisplayCustomerDto(any(Customer.class), anyList())).thenReturn(new DisplayCustomerDto());
+
+        CustomerPageDto page = customerService.getCustomersPage(10L, 2);
+
+        assertEquals(2, page.getCustomers().size());
+        assertEquals(Long.valueOf(12L), page.getNextCursor());
+        verify(orderRepository).findByCustomerIdIn(List.of(11L, 12L));
+        verify(customerRepository, never()).findAll();
+    }
+
+    @Test
+    void getCustomersPage_whenLastPage_thenNoNextCursor() {
+        Customer only = new Customer();
+        only.setId(5L);
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(only));
+        when(customerMapper.toDisplayCustomerDto(any(Customer.class), anyList())).thenReturn(new DisplayCustomerDto());
+
+        CustomerPageDto page = customerService.getCustomersPage(null, 2);
+
+        assertEquals(1, page.getCustomers().size());
+        assertNull(page.getNextCursor());
+    }
+
     // --- createCustomer() ---
 
     @Test
@@ -91,7 +156,68 @@ class CustomerServiceTest {
 
         assertNotNull(result);
         verify(customerRepository).save(customer);
-        verify(cacheConfig).putAllCustomers(anyList());
+        verify(customerRepository, never()).findAll();
+        verify(cacheConfig).putCustomer(any(DisplayCustomerDto.class));
+    }
+
+    @Test
+    void createCustomer_whenFilterRulesUsernameOut_thenSkipExistenceQuery() {
+        CreateCustomerDto dto = new CreateCustomerDto("newuser", "password123", "new@example.com");
+        Customer customer = new Customer();
+        when(usernameFilterService.mightExist("newuser")).thenReturn(false);
+        when(customerMapper.fromCreateCustomerDto(dto)).thenReturn(customer);
+        when(customerRepository.save(customer)).thenReturn(customer);
+        when(customerMapper.toDisplayCustomerDto(customer)).thenReturn(new DisplayCustomerDto());
+
+        customerService.createCustomer(dto);
+
+        verify(customerRepository, never()).existsByUsername(anyString());
+        verify(usernameFilterService).add("newuser");
+    }
+
+    @Test
+    void createCustomer_whenUsernameTaken_thenThrowConflict() {
+        CreateCustomerDto dto = new CreateCustomerDto("taken", "password123", "taken@example.com");
+        when(customerRepository.existsByUsername("taken")).thenReturn(true);
+
+        UsernameConflictException exception = assertThrows(UsernameConflictException.class, () ->
+                customerService.createCustomer(dto));
+
+        assertEquals(List.of("taken"), exception.getUsernames());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    void createCustomer_whenConcurrentInsertHitsUniqueConstraint_thenThrowConflict() {
+        CreateCustomerDto dto = new CreateCustomerDto("racer", "password123", "racer@example.com");
+        Customer customer = new Customer();
+        when(usernameFilterService.mightExist("racer")).thenReturn(false);
+        when(customerMapper.fromCreateCustomerDto(dto)).thenReturn(customer);
+        when(customerRepository.save(customer)).thenReturn(customer);
+        doThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                "ERROR: duplicate key value violates unique constraint \"uk_customers_username\"\n"
+                        + "  Detail: Key (username)=(racer) already exists.")))
+                .when(customerRepository).flush();
+
+        UsernameConflictException exception = assertThrows(UsernameConflictException.class, () ->
+                customerService.createCustomer(dto));
+
+        assertEquals(List.of("racer"), exception.getUsernames());
+        verify(usernameFilterService, never()).add(anyString());
+    }
+
+    @Test
+    void createCustomer_whenOtherConstraintFails_thenRethrow() {
+        CreateCustomerDto dto = new CreateCustomerDto("someone", "password123", "someone@example.com");
+        Customer customer = new Customer();
+        when(customerRepository.existsByUsername("someone")).thenReturn(false);
+        when(customerMapper.fromCreateCustomerDto(dto)).thenReturn(customer);
+        when(customerRepository.save(customer)).thenReturn(customer);
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: null value in column \"email\" violates not-null constraint")))
+                .when(customerRepository).flush();
+
+        assertThrows(DataIntegrityViolationException.class, () -> customerService.createCustomer(dto));
     }
 
     @Test
@@ -101,6 +227,42 @@ class CustomerServiceTest {
         assertThrows(ValidationException.class, () -> customerService.createCustomer(dto));
     }
 
+    // --- createCustomersBulk() ---
+
+    @Test
+    void createCustomersBulk_whenValid_thenSaveAllOnceAndCacheOnce() {
+        CreateCustomerDto first = new CreateCustomerDto("first", "password123", "first@example.com");
+        CreateCustomerDto second = new CreateCustomerDto("second", "password123", "second@example.com");
+        Customer customer = new Customer();
+        when(customerMapper.fromCreateCustomerDto(any(CreateCustomerDto.class))).thenReturn(customer);
+        when(customerRepository.saveAll(anyList())).thenReturn(List.of(customer, customer));
+        when(customerMapper.toDisplayCustomerDto(customer)).thenReturn(new DisplayCustomerDto());
+
+        List<DisplayCustomerDto> result = customerService.createCustomersBulk(List.of(first, second));
+
+        assertEquals(2, result.size());
+        verify(customerRepository, times(1)).saveAll(anyList());
+        verify(customerRepository, never()).save(any());
+        verify(customerRepository, never()).findAll();
+        verify(cacheConfig, times(1)).putCustomers(result);
+    }
+
+    @Test
+    void createCustomersBulk_whenAnyInvalid_thenRejectWholeBatch() {
+        CreateCustomerDto valid = new CreateCustomerDto("valid", "password123", "valid@example.com");
+        CreateCustomerDto invalid = new CreateCustomerDto("ab", "password123", "invalid@example.com");
+        CreateCustomerDto duplicate = new CreateCustomerDto("valid", "password123", "other@example.com");
+
+        ValidationException exception = assertThrows(ValidationException.class, () ->
+                customerService.createCustomersBulk(List.of(valid, invalid, duplicate)));
+
+        assertEquals(List.of(
+                "Customer[1]: Username must be between 3 and 20 characters",
+                "Customer[2]: Username is duplicated in the request"
+        ), exception.getErrors());
+        verifyNoInteractions(customerRepository);
+    }
+
     // --- updateCustomer() ---
 
     @Test
@@ -147,11 +309,12 @@ class CustomerServiceTest {
         CreateCustomerDto dto = new CreateCustomerDto();
         dto.setUsername("user");
 
-        when(customerRepository.existsByUsername("user")).thenReturn(true);
+        when(customerRepository.findExistingUsernames(List.of("user"))).thenReturn(List.of("user"));
 
         boolean exists = customerService.anyCustomerExistsByUsername(List.of(dto));
 
         assertTrue(exists);
+        verify(customerRepository, never()).existsByUsername(anyString());
     }
 
     @Test
@@ -159,13 +322,55 @@ class CustomerServiceTest {
         CreateCustomerDto dto = new CreateCustomerDto();
         dto.setUsername("user");
 
-        when(customerRepository.existsByUsername("user")).thenReturn(false);
+        when(customerRepository.findExistingUsernames(List.of("user"))).thenReturn(List.of());
 
         boolean exists = customerService.anyCustomerExistsByUsername(List.of(dto));
 
         assertFalse(exists);
     }
 
+    // --- findExistingUsernames() ---
+
+    @Test
+    void findExistingUsernames_whenManyUsernames_thenQueryInChunks() {
+        List<CreateCustomerDto> dtos = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            dtos.add(new CreateCustomerDto("user" + i, "password123", "user" + i + "@example.com"));
+        }
+        when(customerRepository.findExistingUsernames(anyCollection()))
+                .thenReturn(List.of("user1"), List.of(), List.of("user2400"));
+
+        List<String> conflicts = customerService.findExistingUsernames(dtos);
+
+        assertEquals(List.of("user1", "user2400"), conflicts);
+        verify(customerRepository, times(3)).findExistingUsernames(anyCollection());
+        verify(customerRepository, never()).existsByUsername(anyString());
+    }
+
+    @Test
+    void createCustomersBulk_whenUsernamesTaken_thenReportConflicts() {
+        CreateCustomerDto taken = new CreateCustomerDto("taken", "password123", "taken@example.com");
+        CreateCustomerDto free = new CreateCustomerDto("free", "password123", "free@example.com");
+        when(customerRepository.findExistingUsernames(List.of("taken", "free"))).thenReturn(List.of("taken"));
+
+        UsernameConflictException exception = assertThrows(UsernameConflictException.class, () ->
+                customerService.createCustomersBulk(List.of(taken, free)));
+
+        assertEquals(List.of("taken"), exception.getUsernames());
+        verify(customerRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void findExistingUsernames_whenFilterRulesAllOut_thenSkipQuery() {
+        CreateCustomerDto dto = new CreateCustomerDto("fresh", "password123", "fresh@example.com");
+        when(usernameFilterService.mightExist("fresh")).thenReturn(false);
+
+        List<String> conflicts = customerService.findExistingUsernames(List.of(dto));
+
+        assertTrue(conflicts.isEmpty());
+        verify(customerRepository, never()).findExistingUsernames(anyCollection());
+    }
+
     // --- deleteCustomer() ---
 
     @Test
@@ -176,7 +381,7 @@ class CustomerServiceTest {
         customerService.deleteCustomer(1L);
 
         verify(customerRepository).delete(customer);
-        verify(cacheConfig).removeAllCustomers();
+        verify(cacheConfig).removeCustomer(1L);
     }
 
     @Test
@@ -0,0 +1,160 @@
+package com.example.srmsystem.Service;
+
+import com.example.srmsystem.config.CacheConfig;
+import com.example.srmsystem.dto.BulkOrderResultDto;
+import com.example.srmsystem.dto.CreateOrderDto;
+import com.example.srmsystem.mapper.OrderMapper;
+import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
+import com.example.srmsystem.repository.CustomerRepository;
+import com.example.srmsystem.repository.OrderRepository;
+import com.example.srmsystem.service.OrderBulkService;
+import com.example.srmsystem.service.OrderSnapshotService;
+import com.example.srmsystem.service.OrderStatsService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderBulkServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private CacheConfig cacheConfig;
+
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private OrderSnapshotService orderSnapshotService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private OrderBulkService orderBulkService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        orderBulkService = new OrderBulkService(orderRepository, customerRepository, orderMapper,
+                cacheConfig, orderStatsService, orderSnapshotService, transactionManager);
+        ReflectionTestUtils.setField(orderBulkService, "entityManager", entityManager);
+    }
+
+    @Test
+    void createOrders_whenMixedItems_thenInsertValidOnesAndReportEachItem() {
+        List<CreateOrderDto> dtos = List.of(
+                order("First", 1L),
+                order(" ", 1L),
+                order("Unknown customer", 99L),
+                order("Second", 2L)
+        );
+        when(customerRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(customerRepository.getReferenceById(anyLong())).thenAnswer(invocation -> customer(invocation.getArgument(0)));
+        when(orderMapper.fromCreateOrderDto(any(CreateOrderDto.class), any(Customer.class))).thenAnswer(invocation -> {
+            CreateOrderDto dto = invocation.getArgument(0);
+            Order order = new Order();
+            order.setDescription(dto.getDescription());
+            order.setOrderDate(dto.getOrderDate());
+            order.setCustomer(invocation.getArgument(1));
+            return order;
+        });
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = new ArrayList<>(invocation.getArgument(0));
+            for (int i = 0; i < orders.size(); i++) {
+                orders.get(i).setId(100L + i);
+            }
+            return orders;
+        });
+
+        List<BulkOrderResultDto> results = orderBulkService.createOrders(dtos);
+
+        assertEquals(4, results.size());
+        assertEquals(BulkOrderResultDto.CREATED, results.get(0).getStatus());
+        assertEquals(Long.valueOf(100L), results.get(0).getOrderId());
+        assertEquals(BulkOrderResultDto.REJECTED, results.get(1).getStatus());
+        assertEquals(BulkOrderResultDto.REJECTED, results.get(2).getStatus());
+        assertEquals(List.of("Customer with ID 99 not found"), results.get(2).getErrors());
+        assertEquals(BulkOrderResultDto.CREATED, results.get(3).getStatus());
+        verify(customerRepository, times(1)).findExistingIds(anyCollection());
+        verify(customerRepository, never()).findById(anyLong());
+        verify(orderRepository, times(1)).saveAll(argThat(orders -> ((List<?>) orders).size() == 2));
+    }
+
+    @Test
+    void createOrdersForCustomer_whenItemIsNull_thenRejectItInsteadOfFailing() {
+        when(customerRepository.existsById(1L)).thenReturn(true);
+        when(customerRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        stubInsert();
+
+        List<BulkOrderResultDto> results = orderBulkService.createOrdersForCustomer(1L,
+                Arrays.asList(order("First", null), null));
+
+        assertEquals(BulkOrderResultDto.CREATED, results.get(0).getStatus());
+        assertEquals(Long.valueOf(1L), results.get(0).getCustomerId());
+        assertEquals(BulkOrderResultDto.REJECTED, results.get(1).getStatus());
+        assertEquals(List.of("Order must not be null"), results.get(1).getErrors());
+    }
+
+    @Test
+    void createOrders_whenChunkFails_thenReportFixedMessageWithoutExceptionDetail() {
+        when(customerRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        stubInsert();
+        doThrow(new IllegalStateException("ERROR: relation \"orders\" violates constraint fk_secret"))
+                .when(orderRepository).saveAll(anyList());
+
+        List<BulkOrderResultDto> results = orderBulkService.createOrders(List.of(order("First", 1L)));
+
+        assertEquals(BulkOrderResultDto.FAILED, results.get(0).getStatus());
+        assertEquals(List.of("Insert failed, the order was not created"), results.get(0).getErrors());
+    }
+
+    private void stubInsert() {
+        when(customerRepository.getReferenceById(anyLong())).thenAnswer(invocation -> customer(invocation.getArgument(0)));
+        when(orderMapper.fromCreateOrderDto(any(CreateOrderDto.class), any(Customer.class))).thenAnswer(invocation -> {
+            CreateOrderDto dto = invocation.getArgument(0);
+            Order order = new Order();
+            order.setDescription(dto.getDescription());
+            order.setCustomer(invocation.getArgument(1));
+            return order;
+        });
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = new ArrayList<>(invocation.getArgument(0));
+            orders.forEach(order -> order.setId(100L));
+            return orders;
+        });
+    }
+
+    private CreateOrderDto order(String description, Long customerId) {
+        return new CreateOrderDto(description, LocalDateTime.now(), customerId);
+    }
+
+    private Customer customer(Long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        return customer;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.srmsystem.Service;
+
+import com.example.srmsystem.dto.DisplayOrderDto;
+import com.example.srmsystem.dto.OrderSearchCriteria;
+import com.example.srmsystem.dto.OrderSearchResultDto;
+import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
+import com.example.srmsystem.service.OrderSearchService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@Import(OrderSearchService.class)
+class OrderSearchPagingTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private OrderSearchService orderSearchService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void search_pagesThroughOrdersWithoutDateAfterDatedOnes() {
+        Customer customer = new Customer();
+        customer.setUsername("paging");
+        customer.setPassword("password");
+        customer.setEmail("paging@example.com");
+        entityManager.persist(customer);
+        List<Long> dated = new ArrayList<>();
+        List<Long> undated = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            dated.add(persistOrder(customer, DATE.plusDays(i % 2)).getId());
+            undated.add(persistOrder(customer, DATE).getId());
+        }
+        entityManager.flush();
+        // @PrePersist проставляет дату, поэтому строки без даты — это старые данные, записанные мимо сущности
+        entityManager.getEntityManager().createQuery("UPDATE Order o SET o.orderDate = null WHERE o.id IN :ids")
+                .setParameter("ids", undated)
+                .executeUpdate();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderSearchResultDto page = orderSearchService.search(new OrderSearchCriteria(), cursor, 3);
+            page.getOrders().stream().map(DisplayOrderDto::getId).forEach(seen::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(10, seen.size());
+        assertEquals(List.of(dated.get(0), dated.get(2), dated.get(4), dated.get(1), dated.get(3)),
+                seen.subList(0, 5));
+        assertEquals(undated, seen.subList(5, 10));
+    }
+
+    private Order persistOrder(Customer customer, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setDescription("order");
+        order.setOrderDate(orderDate);
+        order.setCustomer(customer);
+        return entityManager.persist(order);
+    }
+}
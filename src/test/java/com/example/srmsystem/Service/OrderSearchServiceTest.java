@@ -0,0 +1,90 @@
+package com.example.srmsystem.Service;
+
+import com.example.srmsystem.dto.DisplayOrderDto;
+import com.example.srmsystem.dto.OrderSearchCriteria;
+import com.example.srmsystem.dto.OrderSearchResultDto;
+import com.example.srmsystem.exception.BadRequestException;
+import com.example.srmsystem.repository.OrderRepository;
+import com.example.srmsystem.service.OrderSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderSearchServiceTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 3, 1, 12, 30);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private OrderSearchService orderSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void search_whenMoreRowsThanLimit_thenCursorPointsAtLastReturnedRow() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        when(orderRepository.search(criteria, null, null, 3))
+                .thenReturn(List.of(order(1L), order(2L), order(3L)));
+
+        OrderSearchResultDto firstPage = orderSearchService.search(criteria, null, 2);
+
+        assertEquals(2, firstPage.getOrders().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        when(orderRepository.search(criteria, DATE, 2L, 3)).thenReturn(List.of(order(3L)));
+
+        OrderSearchResultDto secondPage = orderSearchService.search(criteria, firstPage.getNextCursor(), 2);
+
+        assertEquals(1, secondPage.getOrders().size());
+        assertNull(secondPage.getNextCursor());
+        verify(orderRepository).search(criteria, DATE, 2L, 3);
+    }
+
+    @Test
+    void search_whenLastRowHasNoDate_thenCursorContinuesAfterIt() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        // Строки без даты идут последними
+        when(orderRepository.search(criteria, null, null, 3)).thenReturn(List.of(order(1L), undated(7L), undated(8L)));
+
+        OrderSearchResultDto firstPage = orderSearchService.search(criteria, null, 2);
+        orderSearchService.search(criteria, firstPage.getNextCursor(), 2);
+
+        verify(orderRepository).search(criteria, null, 7L, 3);
+    }
+
+    @Test
+    void search_whenCursorMalformed_thenThrowBadRequest() {
+        assertThrows(BadRequestException.class, () ->
+                orderSearchService.search(new OrderSearchCriteria(), "not-a-cursor", 10));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void search_whenWindowEmpty_thenThrowBadRequest() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setCreatedFrom(DATE);
+        criteria.setCreatedTo(DATE);
+
+        assertThrows(BadRequestException.class, () -> orderSearchService.search(criteria, null, 10));
+        verifyNoInteractions(orderRepository);
+    }
+
+    private DisplayOrderDto order(Long id) {
+        return new DisplayOrderDto(id, "Order " + id, DATE, 1L, "john_doe", DATE, null);
+    }
+
+    private DisplayOrderDto undated(Long id) {
+        return new DisplayOrderDto(id, "Order " + id, null, 1L, "john_doe", DATE, null);
+    }
+}
@@ -11,6 +11,8 @@ import com.example.srmsystem.model.Order;
 import com.example.srmsystem.repository.CustomerRepository;
 import com.example.srmsystem.repository.OrderRepository;
 import com.example.srmsystem.service.OrderService;
+import com.example.srmsystem.service.OrderSnapshotService;
+import com.example.srmsystem.service.OrderStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -38,6 +40,12 @@ import static org.mockito.Mockito.*;
     @Mock
     private CacheConfig cacheConfig;
 
+    @Mock
+    private OrderStatsService orderStatsService;
+
+    @Mock
+    private OrderSnapshotService orderSnapshotService;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -87,7 +95,9 @@ import static org.mockito.Mockito.*;
 
         assertNotNull(result);
         verify(orderRepository, times(1)).save(order);
-        verify(cacheConfig, times(1)).putAllOrders(anyList());
+        verify(cacheConfig, times(1)).upsertOrder(order);
+        verify(orderStatsService, times(1)).orderCreated(order);
+        verify(orderRepository, never()).findByCustomerId(CUSTOMER_ID);
     }
 
 
@@ -108,7 +118,8 @@ import static org.mockito.Mockito.*;
         assertEquals(createOrderDto.getDescription(), order.getDescription());
         assertEquals(createOrderDto.getOrderDate(), order.getOrderDate());
         verify(orderRepository, times(1)).save(order);
-        verify(cacheConfig, times(1)).putAllOrders(anyList());
+        verify(cacheConfig, times(1)).upsertOrder(order);
+        verify(orderRepository, never()).findByCustomerId(CUSTOMER_ID);
     }
 
     @Test
@@ -138,7 +149,8 @@ import static org.mockito.Mockito.*;
         orderService.deleteOrder(CUSTOMER_ID, ORDER_ID);
 
         verify(orderRepository, times(1)).delete(order);
-        verify(cacheConfig, times(1)).removeAllOrders();
+        verify(cacheConfig, times(1)).removeOrder(CUSTOMER_ID, ORDER_ID);
+        verify(orderStatsService, times(1)).orderDeleted(order);
     }
 
     @Test
@@ -159,7 +171,7 @@ import static org.mockito.Mockito.*;
 
         orderService.createOrderForCustomer(CUSTOMER_ID, dto);
 
-        verify(cacheConfig, times(1)).putAllOrders(anyList());
+        verify(cacheConfig, times(1)).upsertOrder(order);
     }
     @Test
     void updateOrder_whenInvalid_thenDoNotSaveOrCache() {
@@ -171,12 +183,12 @@ import static org.mockito.Mockito.*;
         assertThrows(ValidationException.class, () -> orderService.updateOrder(CUSTOMER_ID, ORDER_ID, dto));
 
         verify(orderRepository, never()).save(any());
-        verify(cacheConfig, never()).putAllOrders(anyList());
+        verify(cacheConfig, never()).upsertOrder(any());
     }
 
     @Test
     void getOrderById_whenCacheMissAndNotInDb_thenReturnNull() {
-        when(cacheConfig.getAllOrders()).thenReturn(null);
+        when(cacheConfig.getOrders(CUSTOMER_ID)).thenReturn(null);
         when(orderRepository.findByCustomerIdAndId(CUSTOMER_ID, ORDER_ID)).thenReturn(null);
 
         DisplayOrderDto result = orderService.getOrderById(CUSTOMER_ID, ORDER_ID);
@@ -200,7 +212,7 @@ import static org.mockito.Mockito.*;
         DisplayOrderDto expectedOrderDto = new DisplayOrderDto(ORDER_ID, "Order description", LocalDateTime.now(),
                 CUSTOMER_ID, "John Doe", LocalDateTime.now(), LocalDateTime.now());
 
-        when(cacheConfig.getAllOrders()).thenReturn(Collections.emptyList());
+        when(cacheConfig.getOrders(CUSTOMER_ID)).thenReturn(Collections.emptyList());
 
         when(orderRepository.findByCustomerIdAndId(CUSTOMER_ID, ORDER_ID)).thenReturn(orderFromDb);
 
@@ -213,7 +225,47 @@ import static org.mockito.Mockito.*;
 
         verify(orderRepository, times(1)).findByCustomerIdAndId(CUSTOMER_ID, ORDER_ID);
         verify(orderMapper, times(1)).toDisplayOrderDto(orderFromDb);
-        verify(cacheConfig, times(1)).putAllOrders(anyList());
+        verify(orderRepository, never()).findByCustomerId(CUSTOMER_ID);
+    }
+
+    @Test
+    void getOrderById_whenCustomerOrdersCached_thenReturnFromCache() {
+        DisplayOrderDto cachedOrder = new DisplayOrderDto();
+        cachedOrder.setId(ORDER_ID);
+        when(cacheConfig.getOrders(CUSTOMER_ID)).thenReturn(List.of(cachedOrder));
+
+        DisplayOrderDto result = orderService.getOrderById(CUSTOMER_ID, ORDER_ID);
+
+        assertEquals(cachedOrder, result);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getAllOrdersByCustomerId_whenCached_thenReturnFromCache() {
+        List<DisplayOrderDto> cachedOrders = List.of(new DisplayOrderDto());
+        when(cacheConfig.getOrders(CUSTOMER_ID)).thenReturn(cachedOrders);
+
+        List<DisplayOrderDto> result = orderService.getAllOrdersByCustomerId(CUSTOMER_ID);
+
+        assertEquals(cachedOrders, result);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getAllOrdersByCustomerId_whenNotCached_thenLoadAndCacheForCustomer() {
+        DisplayOrderDto orderDto = new DisplayOrderDto();
+        when(cacheConfig.getOrders(CUSTOMER_ID)).thenReturn(null);
+        when(cacheConfig.ordersGeneration(CUSTOMER_ID)).thenReturn(3L);
+        when(orderRepository.findByCustomerId(CUSTOMER_ID)).thenReturn(List.of(order));
+        when(orderMapper.toDisplayOrderDto(order)).thenReturn(orderDto);
+
+        List<DisplayOrderDto> result = orderService.getAllOrdersByCustomerId(CUSTOMER_ID);
+
+        assertEquals(List.of(orderDto), result);
+        InOrder inOrder = inOrder(cacheConfig, orderRepository);
+        inOrder.verify(cacheConfig).ordersGeneration(CUSTOMER_ID);
+        inOrder.verify(orderRepository).findByCustomerId(CUSTOMER_ID);
+        inOrder.verify(cacheConfig, times(1)).putOrdersIfUnchanged(CUSTOMER_ID, List.of(orderDto), 3L);
     }
 
     @Test
@@ -0,0 +1,200 @@
+package com.example.srmsystem.Service;
+
+import com.example.srmsystem.dto.DailyOrderCountDto;
+import com.example.srmsystem.dto.OrderStatsRebuildDto;
+import com.example.srmsystem.model.Customer;
+import com.example.srmsystem.model.Order;
+import com.example.srmsystem.service.OrderStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatsServiceTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 3, 4, 10, 0);
+    private static final LocalDateTime TUESDAY = LocalDateTime.of(2024, 3, 5, 10, 0);
+
+    private JdbcTemplate table;
+
+    private OrderStatsService orderStatsService;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:stats_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        table = new JdbcTemplate(dataSource);
+        table.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, customer_id BIGINT NOT NULL, order_date TIMESTAMP)");
+        orderStatsService = new OrderStatsService(dataSource);
+        orderStatsService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void orderCreated_updatesCustomerAndDailyRollups() {
+        orderStatsService.orderCreated(order(1L, 10L, MONDAY));
+        orderStatsService.orderCreated(order(2L, 10L, MONDAY));
+        orderStatsService.orderCreated(order(3L, 20L, TUESDAY));
+
+        assertEquals(2, orderStatsService.getCustomerCount(10L).getCount());
+        assertEquals(1, orderStatsService.getCustomerCount(20L).getCount());
+        assertEquals(List.of(new DailyOrderCountDto(MONDAY.toLocalDate(), 2),
+                        new DailyOrderCountDto(TUESDAY.toLocalDate(), 1)),
+                orderStatsService.getDailyCounts(null, null));
+        assertEquals(10L, orderStatsService.getTopCustomers(1).get(0).getCustomerId());
+    }
+
+    @Test
+    void orderUpdated_movesOrderToItsNewDay() {
+        Order order = order(1L, 10L, MONDAY);
+        orderStatsService.orderCreated(order);
+
+        order.setOrderDate(TUESDAY);
+        orderStatsService.orderUpdated(MONDAY, order);
+
+        assertEquals(List.of(new DailyOrderCountDto(TUESDAY.toLocalDate(), 1)),
+                orderStatsService.getDailyCounts(null, null));
+        assertEquals(1, orderStatsService.getCustomerCount(10L).getCount());
+    }
+
+    @Test
+    void orderDeletedAndCustomerDeleted_removeCounts() {
+        Order first = order(1L, 10L, MONDAY);
+        orderStatsService.orderCreated(first);
+        orderStatsService.orderCreated(order(2L, 20L, MONDAY));
+        orderStatsService.orderCreated(order(3L, 20L, TUESDAY));
+
+        orderStatsService.orderDeleted(first);
+        orderStatsService.customerDeleted(List.of(order(2L, 20L, MONDAY), order(3L, 20L, TUESDAY)));
+
+        assertEquals(0, orderStatsService.getCustomerCount(10L).getCount());
+        assertEquals(0, orderStatsService.getCustomerCount(20L).getCount());
+        assertTrue(orderStatsService.getDailyCounts(null, null).isEmpty());
+    }
+
+    @Test
+    void rebuild_reportsDriftAgainstTheOrdersTable() {
+        orderStatsService.orderCreated(order(1L, 10L, MONDAY));
+        insert(1L, 10L, MONDAY);
+        insert(2L, 20L, TUESDAY);
+        insert(3L, 20L, TUESDAY);
+
+        OrderStatsRebuildDto result = orderStatsService.rebuild();
+
+        assertEquals(3, result.getOrders());
+        assertEquals(1, result.getMismatchedDays());
+        assertEquals(1, result.getMismatchedCustomers());
+        assertFalse(result.isConsistent());
+        assertEquals(2, orderStatsService.getCustomerCount(20L).getCount());
+
+        assertTrue(orderStatsService.rebuild().isConsistent());
+    }
+
+    @Test
+    void rollback_doesNotApplyTheDelta() {
+        TransactionSynchronizationManager.initSynchronization();
+        orderStatsService.orderCreated(order(1L, 10L, MONDAY));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, orderStatsService.getCustomerCount(10L).getCount());
+        assertEquals(0, orderStatsService.rebuild().getMismatchedCustomers());
+    }
+
+    @Test
+    void rebuild_doesNotCountTwiceAnOrderCommittedBeforeItsSnapshot() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        orderStatsService.orderCreated(order(1L, 10L, MONDAY));
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        // Строка закоммичена, но дельта ещё не применена
+        insert(1L, 10L, MONDAY);
+
+        CompletableFuture<OrderStatsRebuildDto> rebuild = CompletableFuture.supplyAsync(orderStatsService::rebuild);
+        // Пересборка читает таблицу, не дожидаясь коммита, и ждёт только перед сверкой
+        assertThrows(TimeoutException.class, () -> rebuild.get(300, TimeUnit.MILLISECONDS));
+
+        completeCommit();
+
+        OrderStatsRebuildDto result = rebuild.get(5, TimeUnit.SECONDS);
+        assertTrue(result.isConsistent());
+        assertEquals(1, orderStatsService.getCustomerCount(10L).getCount());
+        assertEquals(List.of(new DailyOrderCountDto(MONDAY.toLocalDate(), 1)),
+                orderStatsService.getDailyCounts(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)));
+    }
+
+    @Test
+    void rebuild_keepsChangesCommittedAfterItsSnapshot() throws Exception {
+        Order counted = order(5L, 10L, MONDAY);
+        insert(5L, 10L, MONDAY);
+        orderStatsService.orderCreated(counted);
+        // Незавершённый коммит задерживает сверку, пока остальные изменения проходят мимо снимка
+        TransactionSynchronizationManager.initSynchronization();
+        orderStatsService.orderCreated(order(1L, 10L, MONDAY));
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        insert(1L, 10L, MONDAY);
+        CompletableFuture<OrderStatsRebuildDto> rebuild = CompletableFuture.supplyAsync(orderStatsService::rebuild);
+        assertThrows(TimeoutException.class, () -> rebuild.get(300, TimeUnit.MILLISECONDS));
+
+        insert(2L, 20L, TUESDAY);
+        orderStatsService.orderCreated(order(2L, 20L, TUESDAY));
+        table.update("DELETE FROM orders WHERE id = ?", 5L);
+        orderStatsService.orderDeleted(counted);
+        completeCommit();
+
+        OrderStatsRebuildDto result = rebuild.get(5, TimeUnit.SECONDS);
+        // Снимок видел заказы 1 и 5, но не 2
+        assertEquals(2, result.getOrders());
+        assertTrue(result.isConsistent());
+        assertEquals(1, orderStatsService.getCustomerCount(10L).getCount());
+        assertEquals(1, orderStatsService.getCustomerCount(20L).getCount());
+        assertEquals(List.of(new DailyOrderCountDto(MONDAY.toLocalDate(), 1),
+                        new DailyOrderCountDto(TUESDAY.toLocalDate(), 1)),
+                orderStatsService.getDailyCounts(null, null));
+    }
+
+    private void completeCommit() {
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private void insert(Long id, Long customerId, LocalDateTime orderDate) {
+        table.update("INSERT INTO orders (id, customer_id, order_date) VALUES (?, ?, ?)", id, customerId, orderDate);
+    }
+
+    private static Order order(Long id, Long customerId, LocalDateTime orderDate) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomer(customer);
+        order.setOrderDate(orderDate);
+        return order;
+    }
+}
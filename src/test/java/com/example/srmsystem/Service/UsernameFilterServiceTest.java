@@ -0,0 +1,64 @@
+package com.example.srmsystem.Service;
+
+import com.example.srmsystem.repository.CustomerRepository;
+import com.example.srmsystem.service.UsernameFilterService;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UsernameFilterServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private UsernameFilterService usernameFilterService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Порог пересборки — больше одного устаревшего имени
+        usernameFilterService = new UsernameFilterService(customerRepository, 10, 0.01);
+    }
+
+    @AfterEach
+    void tearDown() {
+        usernameFilterService.shutdown();
+    }
+
+    @Test
+    void remove_whenManyRemovalsCrossThreshold_thenRebuildsOnceOnDedicatedThread() throws Exception {
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        String[] rebuildThread = new String[1];
+        when(customerRepository.findAllUsernames()).thenAnswer(invocation -> {
+            rebuildThread[0] = Thread.currentThread().getName();
+            rebuildStarted.countDown();
+            assertTrue(releaseRebuild.await(5, TimeUnit.SECONDS));
+            return List.of("alice");
+        });
+
+        for (int i = 0; i < 2; i++) {
+            usernameFilterService.remove("user" + i);
+        }
+        assertTrue(rebuildStarted.await(5, TimeUnit.SECONDS));
+        // Удаления во время пересборки ставят в очередь не больше одной следующей
+        for (int i = 2; i < 100; i++) {
+            usernameFilterService.remove("user" + i);
+        }
+        releaseRebuild.countDown();
+
+        // Очередная пересборка видит, что предыдущая уже сбросила устаревшие имена, и не читает их заново
+        verify(customerRepository, after(500).times(1)).findAllUsernames();
+        assertEquals("username-filter-rebuild", rebuildThread[0]);
+        assertTrue(usernameFilterService.getStats().isReady());
+        assertTrue(usernameFilterService.mightExist("alice"));
+    }
+}
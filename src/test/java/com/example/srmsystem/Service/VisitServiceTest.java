@@ -0,0 +1,95 @@
+package com.example.srmsystem.Service;
+
+import com.example.srmsystem.dto.UrlVisitEstimateDto;
+import com.example.srmsystem.dto.VisitDto;
+import com.example.srmsystem.service.VisitService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisitServiceTest {
+
+    private VisitService visitService;
+
+    @BeforeEach
+    void setUp() {
+        visitService = new VisitService(0.001, 0.99, 16);
+    }
+
+    @Test
+    void recordVisit_countsRoutesExactly() {
+        for (int i = 0; i < 1000; i++) {
+            visitService.recordVisit("/api/customers/{id}", "/api/customers/" + i);
+        }
+        visitService.recordVisit("/api/customers", "/api/customers");
+
+        assertEquals(1000, visitService.getVisitCount("/api/customers/{id}"));
+        List<VisitDto> routes = visitService.getRouteCounts();
+        assertEquals(2, routes.size());
+        assertEquals("/api/customers/{id}", routes.get(0).getUrl());
+    }
+
+    @Test
+    void estimateUrlVisits_neverUndercountsAndStaysWithinError() {
+        for (int i = 0; i < 20_000; i++) {
+            visitService.recordVisit("/api/customers/{id}", "/api/customers/" + i);
+        }
+        for (int i = 0; i < 500; i++) {
+            visitService.recordVisit("/api/customers/{id}", "/api/customers/42");
+        }
+
+        UrlVisitEstimateDto estimate = visitService.estimateUrlVisits("/api/customers/42");
+
+        assertTrue(estimate.getCount() >= 501);
+        assertTrue(estimate.getCount() <= 501 + estimate.getError());
+    }
+
+    @Test
+    void getTopUrls_findsHeavyHittersAmongManyDistinctUrls() {
+        for (int i = 0; i < 10_000; i++) {
+            visitService.recordVisit("/api/customers/{id}", "/api/customers/" + i);
+            if (i % 4 == 0) {
+                visitService.recordVisit("/api/customers/{id}", "/api/customers/hot");
+            }
+        }
+
+        List<UrlVisitEstimateDto> top = visitService.getTopUrls(1);
+
+        assertEquals("/api/customers/hot", top.get(0).getUrl());
+        assertTrue(top.get(0).getCount() - top.get(0).getError() <= 2500);
+        assertTrue(top.get(0).getCount() >= 2500);
+    }
+
+    @Test
+    void unpersistedCounts_trackDeltasAcrossFlushesAndRestore() {
+        visitService.incrementVisit("/api/customers");
+        visitService.incrementVisit("/api/customers");
+
+        // Визит до восстановления остаётся несброшенным, восстановленное считается записанным
+        visitService.restoreCounts(Map.of("/api/customers", 10L, "/api/orders/filter/date", 3L));
+
+        assertEquals(12, visitService.getVisitCount("/api/customers"));
+        assertEquals(Map.of("/api/customers", 2L), visitService.getUnpersistedCounts());
+
+        Map<String, Long> deltas = visitService.getUnpersistedCounts();
+        visitService.incrementVisit("/api/customers");
+        visitService.markPersisted(deltas);
+
+        assertEquals(Map.of("/api/customers", 1L), visitService.getUnpersistedCounts());
+    }
+
+    @Test
+    void clearVisitData_resetsEverything() {
+        visitService.recordVisit("/api/customers/{id}", "/api/customers/1");
+
+        visitService.clearVisitData();
+
+        assertEquals(0, visitService.getVisitCount("/api/customers/{id}"));
+        assertEquals(0, visitService.estimateUrlVisits("/api/customers/1").getCount());
+        assertTrue(visitService.getTopUrls(10).isEmpty());
+    }
+}